@@ -0,0 +1 @@
+export const init: (appInitResponse: any) => void;
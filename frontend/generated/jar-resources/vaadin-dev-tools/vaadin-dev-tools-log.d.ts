@@ -0,0 +1,8 @@
+import { LitElement } from 'lit';
+import { VaadinDevTools } from './vaadin-dev-tools.js';
+export declare class VaadinDevToolsLog extends LitElement {
+    _devTools: VaadinDevTools;
+    protected createRenderRoot(): Element | ShadowRoot;
+    activate(): void;
+    render(): import("lit-html").TemplateResult<1>;
+}
@@ -0,0 +1,120 @@
+package org.vaadin.addons.taefi.component;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.icon.VaadinIcon;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ToggleButtonGroupBenchmark {
+
+    @Param({"5", "50", "500", "5000"})
+    private int size;
+
+    private List<String> items;
+    // the items shifted by one: the first one is removed and a new one is added at the end
+    private List<String> shiftedItems;
+    private ServerSideUI ui;
+    private ToggleButtonGroup<String> group;
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void setupItems() {
+        items = IntStream.range(0, size).mapToObj(i -> "item-" + i).toList();
+        shiftedItems = IntStream.range(1, size + 1).mapToObj(i -> "item-" + i).toList();
+    }
+
+    @Setup(Level.Iteration)
+    public void setupGroup() {
+        ui = new ServerSideUI();
+        group = new ToggleButtonGroup<>(items);
+        ui.add(group);
+        ui.flush();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDownGroup() {
+        UI.setCurrent(null);
+    }
+
+    private boolean flip() {
+        return (counter++ & 1) == 0;
+    }
+
+    @Benchmark
+    public ToggleButtonGroup<String> construction() {
+        ToggleButtonGroup<String> newGroup = new ToggleButtonGroup<>(items);
+        ui.add(newGroup);
+        ui.flush();
+        ui.remove(newGroup);
+        return newGroup;
+    }
+
+    @Benchmark
+    public void setItems() {
+        group.setItems(flip() ? shiftedItems : items);
+        ui.flush();
+    }
+
+    @Benchmark
+    public void setItemLabelGenerator() {
+        group.setItemLabelGenerator(flip() ? String::toUpperCase : String::toLowerCase);
+        ui.flush();
+    }
+
+    @Benchmark
+    public void setItemIconGenerator() {
+        group.setItemIconGenerator(flip() ? item -> VaadinIcon.CHECK.create() : item -> VaadinIcon.CLOSE.create());
+        ui.flush();
+    }
+
+    @Benchmark
+    public void setItemTooltipTextGenerator() {
+        group.setItemTooltipTextGenerator(flip() ? String::toUpperCase : String::toLowerCase);
+        ui.flush();
+    }
+
+    @Benchmark
+    public void setItemEnabledProvider() {
+        group.setItemEnabledProvider(flip() ? item -> Boolean.TRUE : item -> item.length() % 2 == 0);
+        ui.flush();
+    }
+
+    @Benchmark
+    public void setItemOrderProvider() {
+        group.setItemOrderProvider(flip() ? item -> -item.length() : String::length);
+        ui.flush();
+    }
+
+    @Benchmark
+    public void setItemIdGenerator() {
+        group.setItemIdGenerator(flip() ? String::toUpperCase : item -> item);
+        ui.flush();
+    }
+
+    @Benchmark
+    public void setSelectedItemClassNameGenerator() {
+        group.setSelectedItemClassNameGenerator(flip() ? item -> "selected" : item -> "");
+        ui.flush();
+    }
+
+    @Benchmark
+    public void setValue() {
+        group.setValue(items.get(counter++ % size));
+        ui.flush();
+    }
+
+    @Benchmark
+    public void setOrientation() {
+        group.setOrientation(flip() ? ToggleButtonGroup.Orientation.VERTICAL : ToggleButtonGroup.Orientation.HORIZONTAL);
+        ui.flush();
+    }
+}
@@ -0,0 +1,52 @@
+package org.vaadin.addons.taefi.component;
+
+import com.vaadin.flow.function.SerializableFunction;
+
+import java.io.Serializable;
+import java.util.*;
+
+// unless another itemIdGenerator is set, the items are identified by their ordinal, so the buttons are looked up
+// through an ordinal indexed array instead of hashing the items, and distinct constants can never share an id
+public class EnumToggleButtonGroup<E extends Enum<E>> extends ToggleButtonGroup<E> {
+
+    private final Class<E> enumType;
+    private final int ordinalCount;
+    private boolean ordinalIds;
+
+    public EnumToggleButtonGroup(Class<E> enumType) {
+        this.enumType = Objects.requireNonNull(enumType);
+        this.ordinalCount = enumType.getEnumConstants().length;
+        setItemIdGenerator(null);
+        setItems(Arrays.asList(enumType.getEnumConstants()));
+    }
+
+    public EnumToggleButtonGroup(String label, Class<E> enumType) {
+        this(enumType);
+        setLabel(label);
+    }
+
+    public EnumToggleButtonGroup(String label, Class<E> enumType, SerializableFunction<E, String> itemLabelGenerator) {
+        this(label, enumType);
+        setItemLabelGenerator(itemLabelGenerator);
+    }
+
+    public Class<E> getEnumType() {
+        return enumType;
+    }
+
+    public void setItems(EnumSet<E> items) {
+        setItems(new ArrayList<>(items));
+    }
+
+    // null resets to the default, where the items are identified by their ordinal
+    @Override
+    public void setItemIdGenerator(SerializableFunction<E, Serializable> itemIdGenerator) {
+        super.setItemIdGenerator(itemIdGenerator == null ? Enum::ordinal : itemIdGenerator);
+        ordinalIds = itemIdGenerator == null;
+    }
+
+    @Override
+    ItemIdIndex createItemIdIndex(Object[] itemIds) {
+        return ordinalIds ? ItemIdIndex.ofOrdinals(itemIds, ordinalCount) : super.createItemIdIndex(itemIds);
+    }
+}
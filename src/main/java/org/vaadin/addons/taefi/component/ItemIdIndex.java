@@ -0,0 +1,249 @@
+package org.vaadin.addons.taefi.component;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+// an immutable item id to item index lookup table. Lookups neither box nor allocate. If an id is given more than once,
+// the last index wins, except for ofUniqueIds which rejects duplicates.
+abstract class ItemIdIndex {
+
+    private static final Object NULL_ID = new Object();
+
+    static final ItemIdIndex EMPTY = of(new Object[0]);
+
+    static ItemIdIndex of(Object[] itemIds) {
+        return new Hashed(itemIds);
+    }
+
+    // a two level perfect hash table: every lookup is two hashes and a single equals, there are no collisions. That
+    // needs distinct hash codes, distinct ids that share one are looked up in a Hashed table instead.
+    static ItemIdIndex ofUniqueIds(Object[] itemIds) {
+        Perfect perfect = checkDistinct(itemIds) ? new Perfect(itemIds) : null;
+        return perfect != null && perfect.complete ? perfect : new Hashed(itemIds);
+    }
+
+    // throws for ids that are equal and returns whether the hash codes of all the ids are distinct
+    private static boolean checkDistinct(Object[] itemIds) {
+        // the hash code in the high half, so sorting groups the ids by it, and the item index in the low half:
+        long[] hashesAndIndexes = new long[itemIds.length];
+        for (int i = 0; i < itemIds.length; i++) {
+            hashesAndIndexes[i] = (long) hashCodeOf(itemIds[i]) << 32 | i;
+        }
+        Arrays.sort(hashesAndIndexes);
+        boolean distinctHashCodes = true;
+        for (int start = 0, end; start < hashesAndIndexes.length; start = end) {
+            long hash = hashesAndIndexes[start] >> 32;
+            for (end = start + 1; end < hashesAndIndexes.length && hashesAndIndexes[end] >> 32 == hash; end++) {
+                distinctHashCodes = false;
+                for (int other = start; other < end; other++) {
+                    int a = (int) hashesAndIndexes[other];
+                    int b = (int) hashesAndIndexes[end];
+                    if (Objects.equals(itemIds[a], itemIds[b])) {
+                        throw new IllegalArgumentException(String.format(
+                                "The items at index %d and %d have the same id '%s'.", a, b, itemIds[a]));
+                    }
+                }
+            }
+        }
+        return distinctHashCodes;
+    }
+
+    private static int hashCodeOf(Object itemId) {
+        return (itemId == null ? NULL_ID : itemId).hashCode();
+    }
+
+    // for ids that are the ordinals of an enum with ordinalCount constants
+    static ItemIdIndex ofOrdinals(Object[] itemIds, int ordinalCount) {
+        return new Ordinals(itemIds, ordinalCount);
+    }
+
+    abstract int indexOf(Object itemId);
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    // a flat open addressing (linear probing) table next to a primitive index array
+    private static final class Hashed extends ItemIdIndex {
+
+        private final Object[] ids;
+        private final int[] indexes;
+        private final int mask;
+
+        private Hashed(Object[] itemIds) {
+            // a power of two at least twice the number of ids keeps the probe sequences short:
+            int capacity = Integer.highestOneBit(Math.max(1, itemIds.length) * 2 - 1) << 1;
+            ids = new Object[capacity];
+            indexes = new int[capacity];
+            mask = capacity - 1;
+            for (int i = 0; i < itemIds.length; i++) {
+                put(itemIds[i] == null ? NULL_ID : itemIds[i], i);
+            }
+        }
+
+        private void put(Object id, int index) {
+            int slot = slotOf(id);
+            while (ids[slot] != null && !ids[slot].equals(id)) {
+                slot = (slot + 1) & mask;
+            }
+            ids[slot] = id;
+            indexes[slot] = index;
+        }
+
+        @Override
+        int indexOf(Object itemId) {
+            Object id = itemId == null ? NULL_ID : itemId;
+            for (int slot = slotOf(id); ids[slot] != null; slot = (slot + 1) & mask) {
+                if (ids[slot].equals(id)) {
+                    return indexes[slot];
+                }
+            }
+            return -1;
+        }
+
+        private int slotOf(Object id) {
+            return mix(id.hashCode()) & mask;
+        }
+    }
+
+    // for ids with distinct hash codes, spread over one bucket per id. The k ids of a bucket get a private range of at
+    // least k * k slots and a seed that gives each of them its own slot in there, which takes less than two attempts
+    // on average.
+    private static final class Perfect extends ItemIdIndex {
+
+        private static final int SEED_ATTEMPTS_PER_SIZE = 64;
+        // how many times the initial k * k slots a bucket may grow to before the index falls back to Hashed:
+        private static final int MAX_BUCKET_GROWTH = 16;
+
+        private final int bucketMask;
+        private final int[] bucketOffsets;
+        private final int[] bucketMasks;
+        private final int[] bucketSeeds;
+        private final Object[] ids;
+        private final int[] indexes;
+        // false when a bucket couldn't be placed within its bounded range, the index isn't usable then
+        private final boolean complete;
+
+        private Perfect(Object[] itemIds) {
+            int bucketCount = Integer.highestOneBit(Math.max(1, itemIds.length) * 2 - 1);
+            bucketMask = bucketCount - 1;
+            bucketOffsets = new int[bucketCount + 1];
+            bucketMasks = new int[bucketCount];
+            bucketSeeds = new int[bucketCount];
+
+            Object[] keys = new Object[itemIds.length];
+            int[] bucketSizes = new int[bucketCount];
+            for (int i = 0; i < itemIds.length; i++) {
+                keys[i] = itemIds[i] == null ? NULL_ID : itemIds[i];
+                bucketSizes[mix(keys[i].hashCode()) & bucketMask]++;
+            }
+            // the item indexes grouped by bucket (a counting sort):
+            int[] bucketStarts = new int[bucketCount + 1];
+            for (int bucket = 0; bucket < bucketCount; bucket++) {
+                bucketStarts[bucket + 1] = bucketStarts[bucket] + bucketSizes[bucket];
+            }
+            int[] grouped = new int[itemIds.length];
+            int[] fill = Arrays.copyOf(bucketStarts, bucketCount);
+            for (int i = 0; i < keys.length; i++) {
+                grouped[fill[mix(keys[i].hashCode()) & bucketMask]++] = i;
+            }
+
+            int[][] slots = new int[bucketCount][];
+            int slotCount = 0;
+            boolean placed = true;
+            for (int bucket = 0; bucket < bucketCount && placed; bucket++) {
+                int[] members = Arrays.copyOfRange(grouped, bucketStarts[bucket], bucketStarts[bucket + 1]);
+                bucketOffsets[bucket] = slotCount;
+                if (members.length > 0) {
+                    slots[bucket] = placeBucket(bucket, keys, members);
+                    placed = slots[bucket] != null;
+                    slotCount += bucketMasks[bucket] + 1;
+                }
+            }
+            bucketOffsets[bucketCount] = slotCount;
+            complete = placed;
+
+            ids = new Object[placed ? slotCount : 0];
+            indexes = new int[ids.length];
+            for (int bucket = 0; bucket < bucketCount && placed; bucket++) {
+                if (slots[bucket] == null) {
+                    continue;
+                }
+                for (int member = bucketStarts[bucket]; member < bucketStarts[bucket + 1]; member++) {
+                    int slot = bucketOffsets[bucket] + slots[bucket][member - bucketStarts[bucket]];
+                    ids[slot] = keys[grouped[member]];
+                    indexes[slot] = grouped[member];
+                }
+            }
+        }
+
+        // finds a seed that maps every member to its own slot and returns the slot of every member, null when the
+        // range of the bucket would have to grow past its bound
+        private int[] placeBucket(int bucket, Object[] keys, int[] members) {
+            int[] memberSlots = new int[members.length];
+            int minSize = Integer.highestOneBit(members.length * members.length * 2 - 1);
+            for (int size = minSize; size <= minSize * MAX_BUCKET_GROWTH; size <<= 1) {
+                int mask = size - 1;
+                boolean[] taken = new boolean[size];
+                for (int attempt = 0; attempt < SEED_ATTEMPTS_PER_SIZE; attempt++) {
+                    int seed = seed(attempt);
+                    Arrays.fill(taken, false);
+                    boolean placed = true;
+                    for (int i = 0; i < members.length && placed; i++) {
+                        memberSlots[i] = slotOf(keys[members[i]].hashCode(), seed) & mask;
+                        placed = !taken[memberSlots[i]];
+                        taken[memberSlots[i]] = true;
+                    }
+                    if (placed) {
+                        bucketMasks[bucket] = mask;
+                        bucketSeeds[bucket] = seed;
+                        return memberSlots;
+                    }
+                }
+            }
+            return null;
+        }
+
+        // the hash is mixed before the multiplication as well, which only carries differences towards the high bits
+        private static int slotOf(int hash, int seed) {
+            return mix(mix(hash) * seed);
+        }
+
+        // odd, so multiplying with it keeps distinct hash codes distinct
+        private static int seed(int attempt) {
+            return 0x9E3779B9 * (attempt + 1) | 1;
+        }
+
+        @Override
+        int indexOf(Object itemId) {
+            Object id = itemId == null ? NULL_ID : itemId;
+            int hash = id.hashCode();
+            int bucket = mix(hash) & bucketMask;
+            if (bucketOffsets[bucket] == bucketOffsets[bucket + 1]) {
+                return -1;
+            }
+            int slot = bucketOffsets[bucket] + (slotOf(hash, bucketSeeds[bucket]) & bucketMasks[bucket]);
+            return id.equals(ids[slot]) ? indexes[slot] : -1;
+        }
+    }
+
+    // the item index of every ordinal, -1 for the constants that aren't items
+    private static final class Ordinals extends ItemIdIndex {
+
+        private final int[] indexes;
+
+        private Ordinals(Object[] itemIds, int ordinalCount) {
+            indexes = new int[ordinalCount];
+            Arrays.fill(indexes, -1);
+            for (int i = 0; i < itemIds.length; i++) {
+                indexes[(Integer) itemIds[i]] = i;
+            }
+        }
+
+        @Override
+        int indexOf(Object itemId) {
+            return itemId instanceof Integer ordinal && ordinal >= 0 && ordinal < indexes.length
+                    ? indexes[ordinal] : -1;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package org.vaadin.addons.taefi.component;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.customfield.CustomField;
+import com.vaadin.flow.component.dependency.CssImport;
+import com.vaadin.flow.component.orderedlayout.FlexComponent;
+import com.vaadin.flow.data.selection.MultiSelect;
+import com.vaadin.flow.data.selection.MultiSelectionEvent;
+import com.vaadin.flow.data.selection.MultiSelectionListener;
+import com.vaadin.flow.function.SerializableFunction;
+import com.vaadin.flow.shared.Registration;
+
+import java.io.Serializable;
+import java.util.*;
+
+// a group of toggle buttons that can be selected independently. The selection is kept as a BitSet over the item
+// indexes, every change (including select all/deselect all) fires a single event and only touches the buttons whose
+// state flipped. Like ToggleButtonGroup it's a CustomField, so the events have the CustomField as their source type.
+@CssImport("./addons-styles/toggle-button-group.css")
+public class MultiToggleButtonGroup<T> extends CustomField<Set<T>>
+        implements MultiSelect<CustomField<Set<T>>, T> {
+
+    private List<T> items = List.of();
+    private SerializableFunction<T, String> itemLabelGenerator = Object::toString;
+    private SerializableFunction<T, Boolean> itemEnabledProvider = item -> Boolean.TRUE;
+    // without an itemIdGenerator the items themselves are the ids, compared by equals:
+    private SerializableFunction<T, Serializable> itemIdGenerator;
+    private ToggleButtonGroup.Orientation orientation = ToggleButtonGroup.Orientation.HORIZONTAL;
+    // internals:
+    private BitSet selection = new BitSet();
+    private Button[] buttons = new Button[0];
+    private transient ItemIdIndex itemIdIndex;
+    private FlexComponent layout;
+
+    public MultiToggleButtonGroup() {
+        super(Collections.emptySet());
+        addClassName("toggle-button-group");
+        layout = createLayout();
+        addButtonClickListener(layout);
+        add((Component) layout);
+    }
+
+    public MultiToggleButtonGroup(String label) {
+        this();
+        setLabel(label);
+    }
+
+    public MultiToggleButtonGroup(String label, List<T> items) {
+        this(label);
+        setItems(items);
+    }
+
+    public MultiToggleButtonGroup(String label, T... items) {
+        this(label, Arrays.asList(items));
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(T... items) {
+        setItems(Arrays.asList(items));
+    }
+
+    // the selected items that are still part of the new items stay selected
+    public void setItems(List<T> items) {
+        Set<T> previousValue = getValue();
+        this.items = new ArrayList<>(items);
+        itemIdIndex = null;
+        buttons = new Button[this.items.size()];
+        layout.removeAll();
+        for (int i = 0; i < buttons.length; i++) {
+            buttons[i] = createButton(this.items.get(i));
+        }
+        layout.add(buttons);
+        layout.setFlexGrow(1.0, buttons);
+
+        selection = new BitSet();
+        BitSet newSelection = toSelection(previousValue);
+        applySelection(newSelection);
+        setModelValue(toValue(newSelection), false);
+    }
+
+    private Button createButton(T item) {
+        Button button = new Button(itemLabelGenerator.apply(item));
+        button.setEnabled(itemEnabledProvider.apply(item));
+        return button;
+    }
+
+    private void buttonClicked(int index, boolean fromClient) {
+        // the layout listener doesn't get the framework's check for disabled buttons, so a click on one is forged
+        if (isReadOnly() || index < 0 || index >= buttons.length || !buttons[index].isEnabled()) {
+            return;
+        }
+        BitSet newSelection = (BitSet) selection.clone();
+        newSelection.flip(index);
+        updateSelection(newSelection, fromClient);
+    }
+
+    @Override
+    public void updateSelection(Set<T> addedItems, Set<T> removedItems) {
+        BitSet newSelection = (BitSet) selection.clone();
+        newSelection.andNot(toSelection(removedItems));
+        newSelection.or(toSelection(addedItems));
+        updateSelection(newSelection, false);
+    }
+
+    public void selectAll() {
+        BitSet newSelection = new BitSet(items.size());
+        newSelection.set(0, items.size());
+        updateSelection(newSelection, false);
+    }
+
+    // the default implementation deselects the items one by one
+    @Override
+    public void deselectAll() {
+        updateSelection(new BitSet(), false);
+    }
+
+    private void updateSelection(BitSet newSelection, boolean fromClient) {
+        if (newSelection.equals(selection)) {
+            return;
+        }
+        applySelection(newSelection);
+        setModelValue(toValue(newSelection), fromClient);
+    }
+
+    // only the buttons whose selected state differs get their theme changed
+    private void applySelection(BitSet newSelection) {
+        BitSet flipped = (BitSet) selection.clone();
+        flipped.xor(newSelection);
+        for (int i = flipped.nextSetBit(0); i >= 0; i = flipped.nextSetBit(i + 1)) {
+            if (newSelection.get(i)) {
+                buttons[i].addThemeVariants(ButtonVariant.LUMO_PRIMARY);
+            } else {
+                buttons[i].removeThemeVariants(ButtonVariant.LUMO_PRIMARY);
+            }
+        }
+        selection = newSelection;
+    }
+
+    // the items that are not part of the group are ignored
+    private BitSet toSelection(Collection<T> value) {
+        BitSet bits = new BitSet(items.size());
+        for (T item : value) {
+            int index = getItemIdIndex().indexOf(getItemId(item));
+            if (index >= 0) {
+                bits.set(index);
+            }
+        }
+        return bits;
+    }
+
+    private Set<T> toValue(BitSet bits) {
+        Set<T> value = new LinkedHashSet<>();
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            value.add(items.get(i));
+        }
+        return Collections.unmodifiableSet(value);
+    }
+
+    private ItemIdIndex getItemIdIndex() {
+        if (itemIdIndex == null) {
+            itemIdIndex = ItemIdIndex.of(items.stream().map(this::getItemId).toArray());
+        }
+        return itemIdIndex;
+    }
+
+    private Object getItemId(T item) {
+        return itemIdGenerator != null ? itemIdGenerator.apply(item) : item;
+    }
+
+    @Override
+    public Set<T> getSelectedItems() {
+        return getValue();
+    }
+
+    @Override
+    public Set<T> getEmptyValue() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public Registration addSelectionListener(MultiSelectionListener<CustomField<Set<T>>, T> listener) {
+        return addValueChangeListener(event -> listener.selectionChange(
+                new MultiSelectionEvent<>(this, this, event.getOldValue(), event.isFromClient())));
+    }
+
+    public SerializableFunction<T, String> getItemLabelGenerator() {
+        return itemLabelGenerator;
+    }
+
+    public void setItemLabelGenerator(SerializableFunction<T, String> itemLabelGenerator) {
+        this.itemLabelGenerator = itemLabelGenerator;
+        for (int i = 0; i < buttons.length; i++) {
+            buttons[i].setText(itemLabelGenerator.apply(items.get(i)));
+        }
+    }
+
+    public SerializableFunction<T, Boolean> getItemEnabledProvider() {
+        return itemEnabledProvider;
+    }
+
+    public void setItemEnabledProvider(SerializableFunction<T, Boolean> itemEnabledProvider) {
+        this.itemEnabledProvider = itemEnabledProvider;
+        for (int i = 0; i < buttons.length; i++) {
+            buttons[i].setEnabled(itemEnabledProvider.apply(items.get(i)));
+        }
+    }
+
+    // an identity function when the items are their own ids
+    public SerializableFunction<T, Serializable> getItemIdGenerator() {
+        return ToggleButtonGroup.orItemsAsIds(itemIdGenerator);
+    }
+
+    // null resets to the default, where the items are their own ids
+    public void setItemIdGenerator(SerializableFunction<T, Serializable> itemIdGenerator) {
+        this.itemIdGenerator = itemIdGenerator;
+        itemIdIndex = null;
+    }
+
+    public ToggleButtonGroup.Orientation getOrientation() {
+        return orientation;
+    }
+
+    public void setOrientation(ToggleButtonGroup.Orientation orientation) {
+        if (this.orientation == orientation) {
+            return;
+        }
+        this.orientation = orientation;
+        setClassName("toggle-button-group-responsive", orientation == ToggleButtonGroup.Orientation.RESPONSIVE);
+        remove((Component) layout);
+        layout = createLayout();
+        addButtonClickListener(layout);
+        layout.add(buttons);
+        layout.setFlexGrow(1.0, buttons);
+        add((Component) layout);
+    }
+
+    private void addButtonClickListener(FlexComponent layout) {
+        ToggleButtonGroup.addButtonClickListener(layout, index -> buttonClicked(index, true));
+    }
+
+    // the position of the buttons is styled by the :first-child/:last-child selectors of the layout
+    private FlexComponent createLayout() {
+        FlexComponent layout = ToggleButtonGroup.createLayout(orientation);
+        layout.addClassName(orientation == ToggleButtonGroup.Orientation.VERTICAL
+                ? "toggle-button-group-buttons-v" : "toggle-button-group-buttons-h");
+        return layout;
+    }
+
+    @Override
+    protected Set<T> generateModelValue() {
+        return toValue(selection);
+    }
+
+    @Override
+    protected void setPresentationValue(Set<T> value) {
+        applySelection(toSelection(value != null ? value : Set.of()));
+        // the items that aren't part of the group are dropped from the value, the selection can't hold them
+        Set<T> selectedValue = toValue(selection);
+        if (!selectedValue.equals(value)) {
+            setModelValue(selectedValue, false);
+        }
+    }
+}
@@ -1,54 +1,147 @@
 package org.vaadin.addons.taefi.component;
 
 import com.vaadin.flow.component.AbstractField;
+import com.vaadin.flow.component.AttachEvent;
 import com.vaadin.flow.component.ClickEvent;
 import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.contextmenu.ContextMenu;
+import com.vaadin.flow.component.contextmenu.MenuItem;
 import com.vaadin.flow.component.customfield.CustomField;
 import com.vaadin.flow.component.dependency.CssImport;
+import com.vaadin.flow.component.dependency.JsModule;
 import com.vaadin.flow.component.icon.Icon;
+import com.vaadin.flow.component.icon.VaadinIcon;
 import com.vaadin.flow.component.orderedlayout.FlexComponent;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.data.provider.DataChangeEvent;
+import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.data.provider.DataViewUtils;
+import com.vaadin.flow.data.provider.HasDataView;
+import com.vaadin.flow.data.provider.HasListDataView;
+import com.vaadin.flow.data.provider.InMemoryDataProvider;
+import com.vaadin.flow.data.provider.ItemCountChangeEvent;
+import com.vaadin.flow.data.provider.KeyMapper;
+import com.vaadin.flow.data.provider.ListDataProvider;
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.data.value.HasValueChangeMode;
+import com.vaadin.flow.data.value.ValueChangeMode;
+import com.vaadin.flow.dom.DomListenerRegistration;
+import com.vaadin.flow.function.SerializableConsumer;
 import com.vaadin.flow.function.SerializableFunction;
+import com.vaadin.flow.shared.Registration;
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
-import java.util.stream.IntStream;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @CssImport("./addons-styles/toggle-button-group.css")
-public class ToggleButtonGroup<T> extends CustomField<T> {
+@JsModule("./addons-components/toggle-button-group-connector.ts")
+public class ToggleButtonGroup<T> extends CustomField<T> implements HasValueChangeMode,
+        HasListDataView<T, ToggleButtonGroupListDataView<T>>, HasDataView<T, Void, ToggleButtonGroupDataView<T>> {
+
+    private static final String CLIENT_SELECTED_INDEX = "event.detail.index";
+    // the index of the clicked button among the children of the layout, -1 for clicks next to the buttons:
+    static final String CLICKED_BUTTON_INDEX =
+            "[].indexOf.call(element.children, event.target.closest('vaadin-button'))";
+    static final String BUTTON_CLICK_FILTER = CLICKED_BUTTON_INDEX + " >= 0";
+    // the most items sent for one range request of the virtual mode, the element asks again for the rest:
+    private static final int MAX_VIRTUAL_RANGE = 200;
+    // what getItemIdGenerator returns when the items are their own ids:
+    private static final SerializableFunction<Object, Object> ITEMS_AS_IDS = item -> item;
 
     public enum Orientation {
-        HORIZONTAL, VERTICAL
+        HORIZONTAL, VERTICAL,
+        // horizontal, but switched to vertical by toggle-button-group.css when the group gets narrow (needs a width)
+        RESPONSIVE
+    }
+
+    public enum RenderMode {
+        // one server-side Button per item:
+        BUTTONS,
+        // a single client-side web component, the items are sent to the browser as a JSON array:
+        WEB_COMPONENT,
+        // a scrollable viewport (see toggle-button-group.css) that only renders the visible buttons. The browser
+        // requests the other items by index range while scrolling, and refers to them by key.
+        VIRTUAL
     }
 
     private List<T> items;
+    // the items in the order they were given, same instance as items unless an itemOrderProvider reorders them:
+    private List<T> originalItems;
     private T selected;
     private SerializableFunction<T, String> itemLabelGenerator = Object::toString;
     private SerializableFunction<T, String> selectedItemClassNameGenerator = item -> "";
     private SerializableFunction<T, Icon> itemIconGenerator;
     private SerializableFunction<T, String> itemTooltipTextGenerator;
     private SerializableFunction<T, Boolean> itemEnabledProvider = item -> Boolean.TRUE;
-    private SerializableFunction<T, Serializable> itemIdGenerator = Objects::hashCode;
+    // without an itemIdGenerator the items themselves are the ids, compared by equals:
+    private SerializableFunction<T, Serializable> itemIdGenerator;
     private SerializableFunction<T, Integer> itemOrderProvider;
+    private boolean uniqueItemIds;
+    private int maxVisibleItems;
+    // the shared items and metadata of a group created from a template, dropped when the group's own configuration
+    // diverges from it:
+    private ToggleButtonGroupTemplate<T> template;
     private boolean enabled = true;
     private boolean toggleable = true;
     private Orientation orientation = Orientation.HORIZONTAL;
-    // internals:
-    private final Map<Serializable, Integer> originalOrderMap = new HashMap<>();
-    private final Map<Serializable, Button> idToButtonMap = new HashMap<>();
-    private final Map<Button, T> buttonToItemMap = new HashMap<>();
-    private final HorizontalLayout hLayout = new HorizontalLayout();
-    private final VerticalLayout vLayout = new VerticalLayout();
+    private RenderMode renderMode = RenderMode.BUTTONS;
+    // the source of the items, null for the items given to setItems(List) until a data view asks for one. The items
+    // are fetched from it when they are first needed, not when it is set:
+    private DataProvider<T, ?> dataProvider;
+    private Registration dataProviderRegistration;
+    private boolean fetchPending;
+    private int fetchRequest;
+    private int asyncFetchRequest = -1;
+    // not serialized, a deserialized group queries a backend data provider in the request thread:
+    private transient Executor fetchExecutor;
+    // internals, the transient ones are derived from the items and the buttons again after deserialization:
+    // the rendered items, the buttons at the same index and the item id to index lookup:
+    private transient List<T> renderedItems = List.of();
+    private transient Button[] buttons = new Button[0];
+    private transient ItemIdIndex itemIdIndex = ItemIdIndex.EMPTY;
+    private transient Map<T, ItemMetadata> itemMetadataCache = new IdentityHashMap<>();
+    private transient boolean transientStateStale;
+    // either a HorizontalLayout or a VerticalLayout, depending on the orientation. Created on first use:
+    private FlexComponent layout;
+    // the item index of every button in the layout while some items are in the overflow menu, null otherwise:
+    private int[] visibleItemIndexes;
+    private Button moreButton;
+    private ContextMenu overflowMenu;
+    private ToggleButtonGroupItems itemsElement;
+    private ToggleButtonGroupVirtualItems virtualItems;
+    private KeyMapper<T> keyMapper;
+    private Registration virtualItemsRegistration;
+    private boolean initScheduled;
+    private boolean recreateButtons;
+    private boolean sortRequired;
+    private boolean releaseOnDetach;
+    private boolean structuralStyling;
+    private boolean optimisticSelection;
+    private ValueChangeMode valueChangeMode = ValueChangeMode.EAGER;
+    private int valueChangeTimeout = DEFAULT_CHANGE_TIMEOUT;
+    private DomListenerRegistration clientChangeRegistration;
+    private Registration itemsElementRegistration;
 
     public ToggleButtonGroup() {
         addClassName("toggle-button-group");
         items = new ArrayList<>();
+        originalItems = items;
     }
 
     public ToggleButtonGroup(String label) {
@@ -74,73 +167,559 @@ public class ToggleButtonGroup<T> extends CustomField<T> {
     public ToggleButtonGroup(String label, List<T> items, SerializableFunction<T, String> itemLabelGenerator) {
         this(label, items);
         this.itemLabelGenerator = itemLabelGenerator;
-        init();
+        scheduleInit();
+    }
+
+    // takes the items, generators, ids and order computed by the template instead of computing them again
+    public ToggleButtonGroup(ToggleButtonGroupTemplate<T> template) {
+        this();
+        this.template = Objects.requireNonNull(template);
+        originalItems = template.getItems();
+        items = template.getSortedItems();
+        itemLabelGenerator = template.getItemLabelGenerator();
+        selectedItemClassNameGenerator = template.getSelectedItemClassNameGenerator();
+        itemIconGenerator = template.getItemIconGenerator();
+        itemTooltipTextGenerator = template.getItemTooltipTextGenerator();
+        itemEnabledProvider = template.getItemEnabledProvider();
+        itemIdGenerator = template.getCustomItemIdGenerator();
+        itemOrderProvider = template.getItemOrderProvider();
+        uniqueItemIds = template.isUniqueItemIds();
+        orientation = template.getOrientation();
+        setClassName("toggle-button-group-responsive", orientation == Orientation.RESPONSIVE);
+        structuralStyling = template.isStructuralStyling();
+        scheduleInit();
+    }
+
+    public ToggleButtonGroup(String label, ToggleButtonGroupTemplate<T> template) {
+        this(template);
+        setLabel(label);
+    }
+
+    // all configuration changes made during one round-trip are collapsed into a single init(). A detached group
+    // doesn't build anything until it gets attached (see onAttach).
+    private void scheduleInit() {
+        if (initScheduled) {
+            return;
+        }
+        initScheduled = true;
+        getUI().ifPresent(this::initBeforeClientResponse);
+    }
+
+    private void initBeforeClientResponse(UI ui) {
+        ui.beforeClientResponse(this, context -> {
+            if (initScheduled) {
+                init();
+            }
+        });
+    }
+
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        super.onAttach(attachEvent);
+        if (dataProvider != null && dataProviderRegistration == null) {
+            // the data provider may have changed while the group didn't listen to it
+            registerDataProviderListener();
+            requestFetch();
+        }
+        if (initScheduled) {
+            initBeforeClientResponse(attachEvent.getUI());
+        }
+        if (isConnectorNeeded() && layout != null) {
+            initConnector();
+        }
+    }
+
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        super.onDetach(detachEvent);
+        // a detached group doesn't keep a shared data provider from releasing it
+        if (dataProviderRegistration != null) {
+            dataProviderRegistration.remove();
+            dataProviderRegistration = null;
+        }
+        if (releaseOnDetach) {
+            releaseButtons();
+            initScheduled = true;
+        }
+    }
+
+    // only the items, the configuration and the selection are kept while the buttons are released
+    private void releaseButtons() {
+        transientStateStale = false;
+        renderedItems = List.of();
+        buttons = new Button[0];
+        visibleItemIndexes = null;
+        itemIdIndex = ItemIdIndex.EMPTY;
+        itemMetadataCache.clear();
+        removeLayout();
+        removeItemsElement();
+        removeVirtualItems();
     }
 
     private void init() {
+        restoreTransientState();
+        // before initScheduled is cleared, so the fetched items don't schedule another init():
+        if (fetchPending && isFetchedAsync()) {
+            fetchItemsAsync();
+        } else {
+            fetchItemsIfPending();
+        }
+        initScheduled = false;
 
-        idToButtonMap.clear();
-        buttonToItemMap.clear();
+        if (recreateButtons) {
+            buttons = new Button[0];
+            itemIdIndex = ItemIdIndex.EMPTY;
+            itemMetadataCache.clear();
+            recreateButtons = false;
+        }
+        Button[] previousButtons = buttons;
+        ItemIdIndex previousIdIndex = itemIdIndex;
 
-        items.sort(getDefaultComparator());
+        sortItemsIfRequired();
 
-        Button[] buttons = new Button[items.size()];
+        Object[] itemIds;
+        if (template != null) {
+            itemIds = template.getItemIds();
+            itemIdIndex = template.getItemIdIndex();
+        } else {
+            itemIds = new Object[items.size()];
+            for (int i = 0; i < itemIds.length; i++) {
+                itemIds[i] = getItemMetadata(items.get(i)).id;
+            }
+            itemIdIndex = createItemIdIndex(itemIds);
+        }
+        renderedItems = items;
 
-        for (int i = 0; i < items.size(); i++) {
+        if (renderMode != RenderMode.BUTTONS) {
+            buttons = new Button[0];
+            visibleItemIndexes = null;
+        }
+        if (renderMode == RenderMode.WEB_COMPONENT) {
+            removeVirtualItems();
+            initItemsElement();
+            return;
+        }
+        removeItemsElement();
+        if (renderMode == RenderMode.VIRTUAL) {
+            initVirtualItems();
+            return;
+        }
+        removeVirtualItems();
+
+        Button[] newButtons = new Button[itemIds.length];
+        visibleItemIndexes = getVisibleItemIndexes(itemIds.length);
+        int visibleCount = visibleItemIndexes != null ? visibleItemIndexes.length : newButtons.length;
+        Button[] layoutButtons = new Button[getLayoutButtonCount()];
+
+        for (int position = 0; position < visibleCount; position++) {
+            int i = toItemIndex(position);
             T item = items.get(i);
-            buttons[i] = createButton(item);
-            applyButtonStyles(buttons[i], i);
-            buttonToItemMap.put(buttons[i], item);
-            idToButtonMap.put(itemIdGenerator.apply(item), buttons[i]);
+            int previousIndex = previousIdIndex.indexOf(itemIds[i]);
+            Button button = previousIndex >= 0 ? previousButtons[previousIndex] : null;
+            if (button == null) {
+                button = createButton(item);
+            } else {
+                // taken, so a duplicate id can't get the same button twice
+                previousButtons[previousIndex] = null;
+                updateButton(button, item);
+            }
+            newButtons[i] = button;
+            layoutButtons[position] = button;
+            applyButtonStyles(button, position);
+            applySelectedClassAttribute(button, item);
+        }
+        if (visibleItemIndexes != null) {
+            Button more = getMoreButton();
+            more.setEnabled(getEnabled());
+            applyButtonStyles(more, visibleCount);
+            layoutButtons[visibleCount] = more;
         }
 
-        addButtonsToLayout(buttons);
+        buttons = newButtons;
+        removeStaleButtons(previousButtons);
+        addButtonsToLayout(layoutButtons);
+        if (visibleItemIndexes != null) {
+            layout.setFlexGrow(0, moreButton);
+        }
         updateStyles(getValue(), getValue());
     }
 
+    // the first maxVisibleItems items, the last one of them replaced by the selected item when that's behind them.
+    // null when all the items get a button.
+    private int[] getVisibleItemIndexes(int itemCount) {
+        if (maxVisibleItems <= 0 || itemCount <= maxVisibleItems) {
+            return null;
+        }
+        int[] visibleIndexes = new int[maxVisibleItems];
+        for (int i = 0; i < visibleIndexes.length; i++) {
+            visibleIndexes[i] = i;
+        }
+        int selectedIndex = indexOfItem(getValue());
+        if (selectedIndex >= maxVisibleItems) {
+            visibleIndexes[maxVisibleItems - 1] = selectedIndex;
+        }
+        return visibleIndexes;
+    }
+
+    // the more button of the overflow menu is the last one in the layout
+    private int getLayoutButtonCount() {
+        return visibleItemIndexes != null ? visibleItemIndexes.length + 1 : items.size();
+    }
+
+    private Button getMoreButton() {
+        if (moreButton == null) {
+            moreButton = new Button(VaadinIcon.ELLIPSIS_DOTS_H.create());
+            moreButton.addClassName("toggle-button-group-more-button");
+            moreButton.setAriaLabel("More");
+            overflowMenu = new OverflowMenu(moreButton);
+        }
+        return moreButton;
+    }
+
+    // the item index of the button at a position of the layout, -1 for the more button
+    private int toItemIndex(int position) {
+        if (visibleItemIndexes == null) {
+            return position;
+        }
+        return position >= 0 && position < visibleItemIndexes.length ? visibleItemIndexes[position] : -1;
+    }
+
+    // the position in the layout of the button of an item index, -1 for the items in the overflow menu
+    private int toPosition(int itemIndex) {
+        if (visibleItemIndexes == null) {
+            return itemIndex;
+        }
+        for (int position = 0; position < visibleItemIndexes.length; position++) {
+            if (visibleItemIndexes[position] == itemIndex) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
     protected void addButtonsToLayout(Button[] buttons) {
-        if (orientation == Orientation.HORIZONTAL) {
-            remove(vLayout);
-
-            hLayout.setSpacing(false);
-            hLayout.removeAll();
-            hLayout.add(buttons);
-            hLayout.setFlexGrow(1.0, buttons);
-            add(hLayout);
-        } else {
-            remove(hLayout);
+        if (layout == null || (layout instanceof VerticalLayout) != (orientation == Orientation.VERTICAL)) {
+            removeLayout();
+            layout = createLayout();
+            addButtonClickListener(layout);
+            add((Component) layout);
+            if (isConnectorNeeded()) {
+                initConnector();
+            }
+            registerClientChangeListener();
+        }
+        syncLayoutChildren(layout, buttons);
+        layout.setFlexGrow(1.0, buttons);
+        updateOptimisticProperties();
+        layout.setClassName("toggle-button-group-buttons-h", structuralStyling && orientation != Orientation.VERTICAL);
+        layout.setClassName("toggle-button-group-buttons-v", structuralStyling && orientation == Orientation.VERTICAL);
+    }
+
+    private void addButtonClickListener(FlexComponent layout) {
+        addButtonClickListener(layout, position -> buttonClicked(toItemIndex(position), true));
+    }
+
+    // a single listener for the clicks on all the buttons, so rebuilding the buttons doesn't register any listeners.
+    // Gets the position of the clicked button in the layout, shared with MultiToggleButtonGroup.
+    static void addButtonClickListener(FlexComponent layout, SerializableConsumer<Integer> positionListener) {
+        layout.getElement().addEventListener("click", event -> positionListener.accept(
+                        (int) event.getEventData().getNumber(CLICKED_BUTTON_INDEX)))
+                .addEventData(CLICKED_BUTTON_INDEX)
+                .setFilter(BUTTON_CLICK_FILTER);
+    }
+
+    private FlexComponent createLayout() {
+        return createLayout(orientation);
+    }
 
+    static FlexComponent createLayout(Orientation orientation) {
+        if (orientation == Orientation.VERTICAL) {
+            VerticalLayout vLayout = new VerticalLayout();
             vLayout.setSpacing(false);
-            vLayout.removeAll();
-            vLayout.add(buttons);
-            vLayout.setFlexGrow(1.0, buttons);
             vLayout.setAlignItems(FlexComponent.Alignment.STRETCH);
-            add(vLayout);
+            return vLayout;
+        }
+        HorizontalLayout hLayout = new HorizontalLayout();
+        hLayout.setSpacing(false);
+        return hLayout;
+    }
+
+    private void removeLayout() {
+        if (layout != null) {
+            remove((Component) layout);
+            layout = null;
+            clientChangeRegistration = null;
+        }
+    }
+
+    // the previous buttons that init() didn't take are gone. Detaching them before the sync keeps the retained
+    // buttons in place, instead of moving each of them in front of a removed one.
+    private void removeStaleButtons(Button[] staleButtons) {
+        if (layout == null) {
+            return;
+        }
+        for (Button button : staleButtons) {
+            if (button != null && button.getParent().orElse(null) == layout) {
+                layout.remove(button);
+            }
+        }
+    }
+
+    // only moves/inserts the buttons that are out of place, so retained buttons keep their DOM nodes. Anything else
+    // left in the layout (e.g. the more button) ends up behind the buttons and is detached from there.
+    private void syncLayoutChildren(FlexComponent layout, Button[] buttons) {
+        for (int i = 0; i < buttons.length; i++) {
+            if (i >= layout.getComponentCount() || layout.getComponentAt(i) != buttons[i]) {
+                layout.addComponentAtIndex(i, buttons[i]);
+            }
+        }
+        while (layout.getComponentCount() > buttons.length) {
+            layout.remove(layout.getComponentAt(buttons.length));
+        }
+    }
+
+    private void initItemsElement() {
+        removeLayout();
+
+        if (itemsElement == null) {
+            itemsElement = new ToggleButtonGroupItems();
+            registerItemsElementListener();
+        }
+        JsonArray jsonItems = Json.createArray();
+        for (int i = 0; i < items.size(); i++) {
+            jsonItems.set(i, toJson(items.get(i)));
+        }
+        itemsElement.setItems(jsonItems);
+        itemsElement.setOrientation(getOrientationStylePostfix());
+        itemsElement.setToggleable(isToggleable());
+        itemsElement.setSelected(indexOfItem(getValue()));
+        itemsElement.setOptimistic(isConnectorNeeded() && !isReadOnly());
+        add(itemsElement);
+    }
+
+    private void removeItemsElement() {
+        if (itemsElement != null) {
+            remove(itemsElement);
+            itemsElement = null;
+        }
+    }
+
+    private void initVirtualItems() {
+        removeLayout();
+
+        if (virtualItems == null) {
+            virtualItems = new ToggleButtonGroupVirtualItems();
+            virtualItems.addRangeRequestedListener(this::sendVirtualRange);
+            registerVirtualItemsListener();
+            keyMapper = new KeyMapper<>(this::getItemId);
+            add(virtualItems);
+        }
+        // the element requests the visible items again, so the keys start over:
+        keyMapper.removeAll();
+        virtualItems.reset(items.size());
+        virtualItems.setOrientation(getOrientationStylePostfix());
+        virtualItems.setToggleable(isToggleable());
+        virtualItems.setSelectedKey(getSelectedKey());
+        virtualItems.setOptimistic(isConnectorNeeded() && !isReadOnly());
+    }
+
+    private void removeVirtualItems() {
+        if (virtualItems != null) {
+            remove(virtualItems);
+            virtualItems = null;
+            keyMapper = null;
+        }
+    }
+
+    private void sendVirtualRange(int start, int end) {
+        restoreTransientState();
+        int from = Math.max(0, start);
+        int to = Math.min(Math.min(end, renderedItems.size()), from + MAX_VIRTUAL_RANGE);
+        JsonArray jsonItems = Json.createArray();
+        for (int i = from; i < to; i++) {
+            T item = renderedItems.get(i);
+            JsonObject jsonItem = toJson(item);
+            jsonItem.put("key", keyMapper.key(item));
+            jsonItems.set(i - from, jsonItem);
+        }
+        virtualItems.setRange(from, jsonItems);
+    }
+
+    // the key of the selected item, if it's one of the rendered items
+    private String getSelectedKey() {
+        int index = indexOfItem(getValue());
+        return index >= 0 ? keyMapper.key(renderedItems.get(index)) : null;
+    }
+
+    private void registerVirtualItemsListener() {
+        if (virtualItemsRegistration != null) {
+            virtualItemsRegistration.remove();
+        }
+        virtualItemsRegistration = virtualItems.addSelectedChangeListener(this::virtualItemsListener,
+                valueChangeMode, valueChangeTimeout);
+    }
+
+    // a key that isn't mapped anymore (the items changed meanwhile) doesn't change the value
+    private void virtualItemsListener(String selectedKey) {
+        restoreTransientState();
+        T item = selectedKey != null ? keyMapper.get(selectedKey) : null;
+        int selectedIndex = item != null ? indexOfItem(item) : -1;
+        if (selectedKey == null || selectedIndex >= 0) {
+            clientSelectionChanged(selectedIndex);
+        }
+        // the client already synchronized the key it shows, this confirms it or rolls it back
+        if (virtualItems != null) {
+            virtualItems.setSelectedKey(getSelectedKey());
+        }
+    }
+
+    private JsonObject toJson(T item) {
+        ItemMetadata metadata = getItemMetadata(item);
+        JsonObject jsonItem = Json.createObject();
+        jsonItem.put("label", metadata.label);
+        jsonItem.put("enabled", getEnabled() && metadata.enabled);
+        if (metadata.iconName != null) {
+            jsonItem.put("icon", metadata.iconName);
+        }
+        if (metadata.tooltip != null) {
+            jsonItem.put("tooltip", metadata.tooltip);
+        }
+        if (StringUtils.isNotBlank(metadata.selectedClassName)) {
+            jsonItem.put("selectedClassName", metadata.selectedClassName);
+        }
+        return jsonItem;
+    }
+
+    private int indexOfItem(T item) {
+        if (item == null) {
+            return -1;
+        }
+        return itemIdIndex.indexOf(getItemId(item));
+    }
+
+    private void registerItemsElementListener() {
+        if (itemsElementRegistration != null) {
+            itemsElementRegistration.remove();
+        }
+        itemsElementRegistration = itemsElement.addSelectedChangeListener(this::itemsElementListener,
+                valueChangeMode, valueChangeTimeout);
+    }
+
+    private void itemsElementListener(int selectedIndex) {
+        int actualIndex = clientSelectionChanged(selectedIndex);
+        // the client already synchronized the index it shows, this confirms it or rolls it back
+        if (itemsElement != null) {
+            itemsElement.setSelected(actualIndex);
+        }
+    }
+
+    // in the coalescing value change modes the connector handles the clicks in the browser and only sends the
+    // resulting index, once per timeout or when the focus leaves the group
+    private void registerClientChangeListener() {
+        if (clientChangeRegistration != null) {
+            clientChangeRegistration.remove();
+            clientChangeRegistration = null;
+        }
+        if (layout == null || !isCoalescing()) {
+            return;
+        }
+        String eventName = isCommittedOnBlur() ? "toggle-button-group-commit" : "toggle-button-group-change";
+        clientChangeRegistration = layout.getElement().addEventListener(eventName,
+                        event -> coalescedChangeListener((int) event.getEventData().getNumber(CLIENT_SELECTED_INDEX)))
+                .addEventData(CLIENT_SELECTED_INDEX);
+        ValueChangeMode.applyChangeTimeout(valueChangeMode, valueChangeTimeout, clientChangeRegistration);
+    }
+
+    // the connector only knows the positions of the buttons in the layout
+    private void coalescedChangeListener(int selectedPosition) {
+        int actualPosition = toPosition(clientSelectionChanged(toItemIndex(selectedPosition)));
+        if (actualPosition != selectedPosition) {
+            rollbackClientSelection(actualPosition);
+        }
+    }
+
+    // applies a selection that the browser already shows and returns the index of the resulting value. A disabled
+    // item isn't selectable in the browser, so an index of one comes from a forged event and is rejected.
+    private int clientSelectionChanged(int selectedIndex) {
+        restoreTransientState();
+        if (!isReadOnly() && selectedIndex < 0 && isToggleable()) {
+            setValue(null, true);
+        } else if (!isReadOnly() && selectedIndex >= 0 && selectedIndex < renderedItems.size()
+                && isItemEnabled(selectedIndex)) {
+            setValue(renderedItems.get(selectedIndex), true);
+        }
+        return indexOfItem(getValue());
+    }
+
+    private boolean isItemEnabled(int index) {
+        return getEnabled() && getItemMetadata(renderedItems.get(index)).enabled;
+    }
+
+    private void rollbackClientSelection(int index) {
+        if (layout != null) {
+            layout.getElement().executeJs("window.Vaadin.Flow.toggleButtonGroupConnector.select(this, $0)", index);
         }
     }
 
     protected Button createButton(T item) {
-        Button button = new Button(itemLabelGenerator.apply(item));
-        button.addClickListener(this::buttonsActionListener);
-        button.setEnabled(getEnabled() && itemEnabledProvider.apply(item));
-        if (itemIconGenerator != null) {
+        ItemMetadata metadata = getItemMetadata(item);
+        Button button = new Button(metadata.label);
+        button.setEnabled(getEnabled() && metadata.enabled);
+        if (metadata.iconName != null) {
             button.setIcon(itemIconGenerator.apply(item));
         }
         if (itemTooltipTextGenerator != null) {
-            button.setTooltipText(itemTooltipTextGenerator.apply(item));
+            button.setTooltipText(metadata.tooltip);
         }
         return button;
     }
 
+    protected void updateButton(Button button, T item) {
+        ItemMetadata metadata = getItemMetadata(item);
+        if (!Objects.equals(button.getText(), metadata.label)) {
+            button.setText(metadata.label);
+        }
+        button.setEnabled(getEnabled() && metadata.enabled);
+        if (!Objects.equals(getIconName(button.getIcon()), metadata.iconName)) {
+            button.setIcon(metadata.iconName != null ? itemIconGenerator.apply(item) : null);
+        }
+        if (itemTooltipTextGenerator != null) {
+            button.setTooltipText(metadata.tooltip);
+        }
+    }
+
+    // e.g. "vaadin:check", null for no icon or one that isn't an Icon
+    private static String getIconName(Component icon) {
+        return icon instanceof Icon ? icon.getElement().getAttribute("icon") : null;
+    }
+
+    // the index is the position of the button in the layout
     protected void applyButtonStyles(Button button, int index) {
+        if (structuralStyling) {
+            // the position of the button is styled by the :first-child/:last-child selectors of the layout
+            return;
+        }
         getButtonsBaseClass().ifPresent(button::addClassName);
+        Optional<String> positionClass;
         if (index == 0) {
-            getFirstButtonClass().ifPresent(button::addClassName);
-        } else if (index == items.size() - 1) {
-            getLastButtonClass().ifPresent(button::addClassName);
+            positionClass = getFirstButtonClass();
+        } else if (index == getLayoutButtonCount() - 1) {
+            positionClass = getLastButtonClass();
         } else {
-            getMiddleButtonClass().ifPresent(button::addClassName);
+            positionClass = getMiddleButtonClass();
         }
+        // a reused button may still carry the class of its previous position:
+        Stream.of(getFirstButtonClass(), getMiddleButtonClass(), getLastButtonClass())
+                .flatMap(Optional::stream)
+                .filter(className -> !positionClass.filter(className::equals).isPresent())
+                .forEach(button::removeClassName);
+        positionClass.ifPresent(button::addClassName);
+    }
+
+    protected void removeButtonStyles(Button button) {
+        Stream.of(getButtonsBaseClass(), getFirstButtonClass(), getMiddleButtonClass(), getLastButtonClass())
+                .flatMap(Optional::stream)
+                .forEach(button::removeClassName);
     }
 
     protected Optional<String> getButtonsBaseClass() {
@@ -160,54 +739,89 @@ public class ToggleButtonGroup<T> extends CustomField<T> {
     }
 
     private String getOrientationStylePostfix() {
-        return orientation == Orientation.HORIZONTAL ? "h" : "v";
+        return orientation == Orientation.VERTICAL ? "v" : "h";
     }
 
-    private Comparator<T> getDefaultComparator() {
-        return (item1, item2) -> {
-            Integer item1Order;
-            Integer item2Order;
-            if (itemOrderProvider != null) {
-                item1Order = itemOrderProvider.apply(item1);
-                item2Order = itemOrderProvider.apply(item2);
-            } else {
-                item1Order = originalOrderMap.get(itemIdGenerator.apply(item1));
-                item2Order = originalOrderMap.get(itemIdGenerator.apply(item2));
-            }
-            return item1Order.compareTo(item2Order);
-        };
+    // each order is computed only once and packed together with the original index into a primitive sort key, so
+    // the sort is stable and doesn't call the itemOrderProvider per comparison. Already ordered items aren't sorted.
+    // the rendered items aren't affected, they are replaced by init()
+    private void sortItemsIfRequired() {
+        if (sortRequired) {
+            items = sortItems(originalItems, itemOrderProvider);
+            sortRequired = false;
+        }
     }
 
+    // the originalItems themselves when they don't need to be sorted
+    static <T> List<T> sortItems(List<T> originalItems, SerializableFunction<T, Integer> itemOrderProvider) {
+        if (itemOrderProvider == null) {
+            return originalItems;
+        }
+        int size = originalItems.size();
+        long[] sortKeys = new long[size];
+        boolean ordered = true;
+        int previousOrder = Integer.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            int order = itemOrderProvider.apply(originalItems.get(i));
+            ordered &= order >= previousOrder;
+            previousOrder = order;
+            sortKeys[i] = ((long) order << 32) | i;
+        }
+        if (ordered) {
+            return originalItems;
+        }
+        Arrays.sort(sortKeys);
+        List<T> sortedItems = new ArrayList<>(size);
+        for (long sortKey : sortKeys) {
+            sortedItems.add(originalItems.get((int) sortKey));
+        }
+        return sortedItems;
+    }
+
+    // the buttons don't have click listeners of their own (see addButtonClickListener). This handles the clicks of
+    // subclasses that add them.
     protected void buttonsActionListener(ClickEvent<Button> event) {
-        if (isReadOnly()) {
+        restoreTransientState();
+        buttonClicked(indexOfButton(event.getSource()), event.isFromClient());
+    }
+
+    private void buttonClicked(int index, boolean fromClient) {
+        restoreTransientState();
+        if (index < 0 || index >= buttons.length) {
             return;
         }
-        T selectedValue = buttonToItemMap.get(event.getSource());
-        if (isToggleable()) {
-            Serializable selectedValueId = itemIdGenerator.apply(selectedValue);
-            Serializable previousValueId = itemIdGenerator.apply(getValue());
-            if (Objects.equals(selectedValueId, previousValueId)) {
-                setValue(null, event.isFromClient());
-                return;
-            }
+        // clicking the selected button of a toggleable group clears the selection. An optimistic client predicts the
+        // same in toggle-button-group-connector.ts.
+        int selectedIndex = isToggleable() && index == indexOfItem(getValue()) ? -1 : index;
+        // the layout listener doesn't get the framework's check for disabled buttons, so a click on one is forged
+        if (!isReadOnly() && isItemEnabled(index)) {
+            setValue(selectedIndex >= 0 ? renderedItems.get(selectedIndex) : null, fromClient);
+        }
+        int actualIndex = indexOfItem(getValue());
+        if (optimisticSelection && actualIndex != selectedIndex) {
+            // the click was rejected or the value was changed by a listener, so the client has to roll back:
+            rollbackClientSelection(toPosition(actualIndex));
         }
-        setValue(selectedValue, event.isFromClient());
     }
 
     @Override
     public void setEnabled(boolean enabled) {
         this.enabled = enabled;
         setReadOnly(!enabled);
+        if (renderMode != RenderMode.BUTTONS) {
+            scheduleInit();
+            return;
+        }
 
-        Stream<Component> componentStream;
-        if (Orientation.HORIZONTAL == this.orientation) {
-            componentStream = this.hLayout.getChildren();
-        } else {
-            componentStream = this.vLayout.getChildren();
+        restoreTransientState();
+        for (int i = 0; i < buttons.length; i++) {
+            if (buttons[i] != null) {
+                buttons[i].setEnabled(isItemEnabled(i));
+            }
+        }
+        if (moreButton != null) {
+            moreButton.setEnabled(enabled);
         }
-        componentStream.filter(Button.class::isInstance)
-                .map(Button.class::cast)
-                .forEach(button -> button.setEnabled(enabled));
     }
 
     public boolean getEnabled() {
@@ -220,30 +834,435 @@ public class ToggleButtonGroup<T> extends CustomField<T> {
 
     public void setToggleable(boolean toggleable) {
         this.toggleable = toggleable;
+        if (itemsElement != null) {
+            itemsElement.setToggleable(toggleable);
+        }
+        if (virtualItems != null) {
+            virtualItems.setToggleable(toggleable);
+        }
+        updateOptimisticProperties();
+    }
+
+    @Override
+    public void setReadOnly(boolean readOnly) {
+        super.setReadOnly(readOnly);
+        updateOptimisticProperties();
+    }
+
+    public boolean isOptimisticSelection() {
+        return optimisticSelection;
+    }
+
+    // highlights a clicked button in the browser right away instead of after the server round-trip. The server
+    // rolls the client back when it doesn't accept the click (read-only, or a listener changes the value).
+    public void setOptimisticSelection(boolean optimisticSelection) {
+        if (this.optimisticSelection == optimisticSelection) {
+            return;
+        }
+        this.optimisticSelection = optimisticSelection;
+        if (isConnectorNeeded() && layout != null) {
+            initConnector();
+        }
+        restoreTransientState();
+        for (int i = 0; i < buttons.length; i++) {
+            if (buttons[i] != null) {
+                applySelectedClassAttribute(buttons[i], renderedItems.get(i));
+            }
+        }
+        updateOptimisticProperties();
+    }
+
+    @Override
+    public ValueChangeMode getValueChangeMode() {
+        return valueChangeMode;
+    }
+
+    // EAGER sends every click. LAZY and TIMEOUT coalesce the clicks in the browser and send the resulting value after
+    // the timeout (debounced or throttled), ON_BLUR and ON_CHANGE when the focus leaves the group.
+    @Override
+    public void setValueChangeMode(ValueChangeMode valueChangeMode) {
+        this.valueChangeMode = Objects.requireNonNull(valueChangeMode);
+        if (isConnectorNeeded() && layout != null) {
+            initConnector();
+        }
+        registerClientChangeListener();
+        if (itemsElement != null) {
+            registerItemsElementListener();
+        }
+        if (virtualItems != null) {
+            registerVirtualItemsListener();
+        }
+        updateOptimisticProperties();
+    }
+
+    @Override
+    public int getValueChangeTimeout() {
+        return valueChangeTimeout;
+    }
+
+    @Override
+    public void setValueChangeTimeout(int valueChangeTimeout) {
+        this.valueChangeTimeout = valueChangeTimeout;
+        registerClientChangeListener();
+        if (itemsElement != null) {
+            registerItemsElementListener();
+        }
+        if (virtualItems != null) {
+            registerVirtualItemsListener();
+        }
+    }
+
+    private boolean isCoalescing() {
+        return valueChangeMode != ValueChangeMode.EAGER;
+    }
+
+    private boolean isCommittedOnBlur() {
+        return valueChangeMode == ValueChangeMode.ON_BLUR || valueChangeMode == ValueChangeMode.ON_CHANGE;
+    }
+
+    private boolean isConnectorNeeded() {
+        return optimisticSelection || isCoalescing();
+    }
+
+    private void initConnector() {
+        layout.getElement().executeJs("window.Vaadin.Flow.toggleButtonGroupConnector.initLayout(this)");
+    }
+
+    // what the connector needs to predict the selection the same way buttonsActionListener does
+    private void updateOptimisticProperties() {
+        restoreTransientState();
+        // coalescing clicks in the browser means showing their result there as well:
+        boolean optimistic = isConnectorNeeded() && !isReadOnly();
+        if (itemsElement != null) {
+            itemsElement.setOptimistic(optimistic);
+        }
+        if (virtualItems != null) {
+            virtualItems.setOptimistic(optimistic);
+        }
+        if (layout == null || (!optimistic && !layout.getElement().hasProperty("optimistic"))) {
+            return;
+        }
+        layout.getElement().setProperty("optimistic", optimistic);
+        layout.getElement().setProperty("coalesce", isCoalescing() && !isReadOnly());
+        layout.getElement().setProperty("toggleable", isToggleable());
+        layout.getElement().setProperty("selectedIndex", toPosition(indexOfItem(getValue())));
+    }
+
+    // lets the connector apply a custom selected class instead of the primary theme variant
+    private void applySelectedClassAttribute(Button button, T item) {
+        String selectedClassName = optimisticSelection ? getItemMetadata(item).selectedClassName : null;
+        if (StringUtils.isNotBlank(selectedClassName)) {
+            button.getElement().setAttribute("selected-class", selectedClassName);
+        } else {
+            button.getElement().removeAttribute("selected-class");
+        }
+    }
+
+    public int getMaxVisibleItems() {
+        return maxVisibleItems;
+    }
+
+    // renders buttons for the first maxVisibleItems items only (0, the default, for all of them). The others are
+    // listed in an overflow menu behind a more button, built when it's opened. A selected item of the menu replaces
+    // the last button. Applies to RenderMode.BUTTONS.
+    public void setMaxVisibleItems(int maxVisibleItems) {
+        if (maxVisibleItems < 0) {
+            throw new IllegalArgumentException("The maximum number of visible items can't be negative.");
+        }
+        this.maxVisibleItems = maxVisibleItems;
+        scheduleInit();
+    }
+
+    public boolean isReleaseOnDetach() {
+        return releaseOnDetach;
+    }
+
+    public void setReleaseOnDetach(boolean releaseOnDetach) {
+        this.releaseOnDetach = releaseOnDetach;
+    }
+
+    public boolean isStructuralStyling() {
+        return structuralStyling;
+    }
+
+    public void setStructuralStyling(boolean structuralStyling) {
+        if (this.structuralStyling == structuralStyling) {
+            return;
+        }
+        restoreTransientState();
+        Arrays.stream(buttons).filter(Objects::nonNull).forEach(this::removeButtonStyles);
+        this.structuralStyling = structuralStyling;
+        scheduleInit();
     }
 
     public T getSelected() {
         return selected;
     }
 
+    // unmodifiable while the group uses a template, since the list is shared with the other groups of the template.
+    // The items are changed with setItems or the list data view.
     public List<T> getItems() {
+        fetchItemsIfPending();
+        sortItemsIfRequired();
         return items;
     }
 
+    // the items don't get a data provider until a data view is used (see getDataProvider)
     public void setItems(List<T> items) {
-        this.items = new ArrayList<>(items);
-        initializeOriginalOrderMap();
-        init();
+        if (uniqueItemIds) {
+            validateItemIds(items);
+        }
+        if (dataProvider != null) {
+            removeDataProvider();
+        }
+        // drops the result of a query that is still running:
+        fetchRequest++;
+        applyFetchedItems(new ArrayList<>(items));
     }
 
-    public void setItems(T... items) {
+    @Override
+    public ToggleButtonGroupListDataView<T> setItems(T... items) {
         setItems(Arrays.asList(items));
+        return ToggleButtonGroupListDataView.deferred(this::getDataProvider, this, (filter, sorting) -> requestFetch());
+    }
+
+    @Override
+    public ToggleButtonGroupListDataView<T> setItems(ListDataProvider<T> dataProvider) {
+        setDataProvider(dataProvider);
+        return getListDataView();
+    }
+
+    @Override
+    public ToggleButtonGroupDataView<T> setItems(DataProvider<T, Void> dataProvider) {
+        setDataProvider(dataProvider);
+        return getGenericDataView();
+    }
+
+    @Override
+    public ToggleButtonGroupDataView<T> setItems(InMemoryDataProvider<T> dataProvider) {
+        setDataProvider(dataProvider);
+        return getGenericDataView();
+    }
+
+    @Override
+    public ToggleButtonGroupListDataView<T> getListDataView() {
+        return new ToggleButtonGroupListDataView<>(this::getDataProvider, this, (filter, sorting) -> requestFetch());
+    }
+
+    @Override
+    public ToggleButtonGroupDataView<T> getGenericDataView() {
+        return new ToggleButtonGroupDataView<>(this::getDataProvider, this);
+    }
+
+    // the items of setItems(List) only get a data provider (over a copy of them) when it's actually used
+    private DataProvider<T, ?> getDataProvider() {
+        if (dataProvider == null) {
+            dataProvider = new ListDataProvider<>(new ArrayList<>(originalItems));
+            registerDataProviderListener();
+        }
+        return dataProvider;
+    }
+
+    private void setDataProvider(DataProvider<T, ?> dataProvider) {
+        Objects.requireNonNull(dataProvider);
+        if (this.dataProvider != null) {
+            removeDataProvider();
+        }
+        this.dataProvider = dataProvider;
+        registerDataProviderListener();
+        requestFetch();
+    }
+
+    private void removeDataProvider() {
+        if (dataProviderRegistration != null) {
+            dataProviderRegistration.remove();
+            dataProviderRegistration = null;
+        }
+        dataProvider = null;
+        DataViewUtils.removeComponentFilterAndSortComparator(this);
+    }
+
+    private void registerDataProviderListener() {
+        if (dataProviderRegistration != null) {
+            dataProviderRegistration.remove();
+        }
+        dataProviderRegistration = dataProvider.addDataProviderListener(this::dataProviderChanged);
+    }
+
+    // a refreshed item only updates its button, refreshAll fetches the items again. The buttons of the items that
+    // are still there (by id) are kept by init().
+    private void dataProviderChanged(DataChangeEvent<T> event) {
+        if (event instanceof DataChangeEvent.DataRefreshEvent<T> refreshEvent) {
+            refreshItem(refreshEvent.getItem());
+        } else {
+            requestFetch();
+        }
+    }
+
+    private void requestFetch() {
+        fetchPending = true;
+        fetchRequest++;
+        scheduleInit();
+    }
+
+    private boolean isFetchedAsync() {
+        return fetchExecutor != null && dataProvider != null && !dataProvider.isInMemory();
+    }
+
+    private void fetchItemsIfPending() {
+        if (fetchPending && !isFetchedAsync()) {
+            List<T> fetchedItems = fetch(dataProvider, DataViewUtils.getQuery(this));
+            if (uniqueItemIds) {
+                validateItemIds(fetchedItems);
+            }
+            applyFetchedItems(fetchedItems);
+        }
+    }
+
+    // the query runs on the fetch executor and the items are applied in UI.access. The result of a query that was
+    // overtaken by a newer one is dropped.
+    private void fetchItemsAsync() {
+        if (asyncFetchRequest == fetchRequest) {
+            return;
+        }
+        int request = fetchRequest;
+        asyncFetchRequest = request;
+        UI ui = getUI().orElseThrow();
+        DataProvider<T, ?> provider = dataProvider;
+        Query<?, ?> query = DataViewUtils.getQuery(this);
+        CompletableFuture.supplyAsync(() -> fetch(provider, query), fetchExecutor)
+                .whenComplete((fetchedItems, error) -> ui.access(() -> {
+                    if (request != fetchRequest) {
+                        return;
+                    }
+                    if (error != null) {
+                        throw new IllegalStateException("Fetching the items of the group failed.", error);
+                    }
+                    if (uniqueItemIds) {
+                        validateItemIds(fetchedItems);
+                    }
+                    applyFetchedItems(fetchedItems);
+                }));
     }
 
-    private void initializeOriginalOrderMap() {
-        originalOrderMap.clear();
-        IntStream.range(0, items.size()).forEach(i ->
-                originalOrderMap.put(itemIdGenerator.apply(items.get(i)), i));
+    // the query of DataViewUtils carries the filter and sort order of the list data view
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> fetch(DataProvider<T, ?> dataProvider, Query<?, ?> query) {
+        return ((DataProvider<T, Object>) dataProvider).fetch((Query<T, Object>) query)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private void applyFetchedItems(List<T> fetchedItems) {
+        dropTemplate();
+        boolean countChanged = fetchedItems.size() != originalItems.size();
+        items = fetchedItems;
+        originalItems = items;
+        fetchPending = false;
+        itemMetadataCache.clear();
+        sortRequired = true;
+        scheduleInit();
+        if (countChanged && hasListener(ItemCountChangeEvent.class)) {
+            fireEvent(new ItemCountChangeEvent<>(this, items.size(), false));
+        }
+    }
+
+    public Executor getFetchExecutor() {
+        return fetchExecutor;
+    }
+
+    // null (the default) queries a backend data provider in the request thread when the items are first needed.
+    // With an executor the query runs there after the group is attached, so building a view doesn't wait for it. The
+    // items are applied in UI.access, which needs server push (or polling) to reach the browser.
+    public void setFetchExecutor(Executor fetchExecutor) {
+        this.fetchExecutor = fetchExecutor;
+    }
+
+    public void refreshItem(T item) {
+        refreshItems(List.of(item));
+    }
+
+    // without buttons the client gets the items again, the virtual mode only the visible ones
+    public void refreshItems(Collection<T> itemsToRefresh) {
+        // the selected class as updateStyles applied it, the refresh may change what the generator returns
+        T value = getValue();
+        String oldSelectedClassName = value != null ? getSelectedItemClassName(value) : null;
+        dropTemplate();
+        if (renderMode != RenderMode.BUTTONS) {
+            itemsToRefresh.forEach(item -> {
+                itemMetadataCache.remove(item);
+                replaceItem(getItemId(item), item);
+            });
+            scheduleInit();
+            return;
+        }
+        restoreTransientState();
+        int selectedIndex = indexOfItem(value);
+        for (T item : itemsToRefresh) {
+            itemMetadataCache.remove(item);
+            Object itemId = getItemId(item);
+            Button button = initScheduled ? null : getButton(itemId);
+            if (button == null) {
+                // not rendered yet, the pending init() picks up the refreshed item
+                replaceItem(itemId, item);
+                continue;
+            }
+            int index = itemIdIndex.indexOf(itemId);
+            boolean selected = index == selectedIndex;
+            if (selected) {
+                applySelectedStyle(button, oldSelectedClassName, false);
+            }
+            if (renderedItems.get(index) != item) {
+                replaceItem(itemId, item);
+            }
+            updateButton(button, item);
+            if (selected) {
+                applySelectedStyle(button, getSelectedItemClassName(value), true);
+            }
+            applySelectedClassAttribute(button, item);
+        }
+    }
+
+    private void replaceItem(Object itemId, T item) {
+        replaceItem(items, itemId, item);
+        if (originalItems != items) {
+            replaceItem(originalItems, itemId, item);
+        }
+    }
+
+    private void replaceItem(List<T> itemList, Object itemId, T item) {
+        for (int i = 0; i < itemList.size(); i++) {
+            if (Objects.equals(getItemId(itemList.get(i)), itemId)) {
+                itemMetadataCache.remove(itemList.get(i));
+                itemList.set(i, item);
+                return;
+            }
+        }
+    }
+
+    public ToggleButtonGroupTemplate<T> getTemplate() {
+        return template;
+    }
+
+    // the group computes the metadata of its items itself from here on, in lists of its own it may change
+    private void dropTemplate() {
+        if (template == null) {
+            return;
+        }
+        template = null;
+        boolean sorted = items != originalItems;
+        boolean rendered = renderedItems == items;
+        originalItems = new ArrayList<>(originalItems);
+        items = sorted ? new ArrayList<>(items) : originalItems;
+        // the copies replace refreshed items, so the buttons have to render from them as well
+        if (rendered) {
+            renderedItems = items;
+        }
+    }
+
+    // the items as given, before an itemOrderProvider sorted them
+    List<T> getOriginalItems() {
+        fetchItemsIfPending();
+        return originalItems;
     }
 
     public SerializableFunction<T, String> getSelectedItemClassNameGenerator() {
@@ -251,8 +1270,11 @@ public class ToggleButtonGroup<T> extends CustomField<T> {
     }
 
     public void setSelectedItemClassNameGenerator(SerializableFunction<T, String> selectedItemClassNameGenerator) {
+        dropTemplate();
         this.selectedItemClassNameGenerator = selectedItemClassNameGenerator;
-        init();
+        itemMetadataCache.clear();
+        recreateButtons = true;
+        scheduleInit();
     }
 
     public Function<T, String> getItemLabelGenerator() {
@@ -260,8 +1282,10 @@ public class ToggleButtonGroup<T> extends CustomField<T> {
     }
 
     public void setItemLabelGenerator(SerializableFunction<T, String> itemLabelGenerator) {
+        dropTemplate();
         this.itemLabelGenerator = itemLabelGenerator;
-        init();
+        itemMetadataCache.clear();
+        scheduleInit();
     }
 
     public SerializableFunction<T, Icon> getItemIconGenerator() {
@@ -269,17 +1293,65 @@ public class ToggleButtonGroup<T> extends CustomField<T> {
     }
 
     public void setItemIconGenerator(SerializableFunction<T, Icon> itemIconGenerator) {
+        dropTemplate();
         this.itemIconGenerator = itemIconGenerator;
-        init();
+        itemMetadataCache.clear();
+        scheduleInit();
     }
 
+    // an identity function when the items are their own ids
     public Function<T, Serializable> getItemIdGenerator() {
+        return orItemsAsIds(itemIdGenerator);
+    }
+
+    // null when the items are their own ids
+    SerializableFunction<T, Serializable> getCustomItemIdGenerator() {
         return itemIdGenerator;
     }
 
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <T> SerializableFunction<T, Serializable> orItemsAsIds(
+            SerializableFunction<T, Serializable> itemIdGenerator) {
+        return itemIdGenerator != null ? itemIdGenerator : (SerializableFunction) ITEMS_AS_IDS;
+    }
+
+    // null resets to the default, where the items are their own ids
     public void setItemIdGenerator(SerializableFunction<T, Serializable> itemIdGenerator) {
+        if (uniqueItemIds) {
+            validateItemIds(getItems(), itemIdGenerator);
+        }
+        dropTemplate();
         this.itemIdGenerator = itemIdGenerator;
-        init();
+        itemMetadataCache.clear();
+        recreateButtons = true;
+        scheduleInit();
+    }
+
+    public boolean isUniqueItemIds() {
+        return uniqueItemIds;
+    }
+
+    // promises that no two items have equal ids. setItems (and this setter) then reject duplicates with an
+    // IllegalArgumentException, and the buttons are looked up through a collision free (perfect hash) index.
+    public void setUniqueItemIds(boolean uniqueItemIds) {
+        if (this.uniqueItemIds == uniqueItemIds) {
+            return;
+        }
+        if (uniqueItemIds) {
+            validateItemIds(getItems());
+        }
+        dropTemplate();
+        this.uniqueItemIds = uniqueItemIds;
+        recreateButtons = true;
+        scheduleInit();
+    }
+
+    private void validateItemIds(List<T> items) {
+        validateItemIds(items, itemIdGenerator);
+    }
+
+    private void validateItemIds(List<T> items, SerializableFunction<T, Serializable> itemIdGenerator) {
+        ItemIdIndex.ofUniqueIds(items.stream().map(item -> toItemId(itemIdGenerator, item)).toArray());
     }
 
     public SerializableFunction<T, String> getItemTooltipTextGenerator() {
@@ -287,8 +1359,11 @@ public class ToggleButtonGroup<T> extends CustomField<T> {
     }
 
     public void setItemTooltipTextGenerator(SerializableFunction<T, String> itemTooltipTextGenerator) {
+        dropTemplate();
         this.itemTooltipTextGenerator = itemTooltipTextGenerator;
-        init();
+        itemMetadataCache.clear();
+        recreateButtons |= itemTooltipTextGenerator == null;
+        scheduleInit();
     }
 
     public SerializableFunction<T, Boolean> getItemEnabledProvider() {
@@ -296,8 +1371,10 @@ public class ToggleButtonGroup<T> extends CustomField<T> {
     }
 
     public void setItemEnabledProvider(SerializableFunction<T, Boolean> itemEnabledProvider) {
+        dropTemplate();
         this.itemEnabledProvider = itemEnabledProvider;
-        init();
+        itemMetadataCache.clear();
+        scheduleInit();
     }
 
     public SerializableFunction<T, Integer> getItemOrderProvider() {
@@ -305,8 +1382,20 @@ public class ToggleButtonGroup<T> extends CustomField<T> {
     }
 
     public void setItemOrderProvider(SerializableFunction<T, Integer> itemOrderProvider) {
+        dropTemplate();
         this.itemOrderProvider = itemOrderProvider;
-        init();
+        sortRequired = true;
+        scheduleInit();
+    }
+
+    public RenderMode getRenderMode() {
+        return renderMode;
+    }
+
+    public void setRenderMode(RenderMode renderMode) {
+        this.renderMode = renderMode;
+        recreateButtons = true;
+        scheduleInit();
     }
 
     public Orientation getOrientation() {
@@ -314,8 +1403,15 @@ public class ToggleButtonGroup<T> extends CustomField<T> {
     }
 
     public void setOrientation(Orientation orientation) {
+        if (this.orientation == orientation) {
+            return;
+        }
+        // the buttons are reused, only the classes of the previous orientation are dropped:
+        restoreTransientState();
+        Arrays.stream(buttons).filter(Objects::nonNull).forEach(this::removeButtonStyles);
         this.orientation = orientation;
-        init();
+        setClassName("toggle-button-group-responsive", orientation == Orientation.RESPONSIVE);
+        scheduleInit();
     }
 
     @Override
@@ -329,7 +1425,7 @@ public class ToggleButtonGroup<T> extends CustomField<T> {
     }
 
     private void setValue(T selected, boolean isFromClient) {
-        if (items.isEmpty()) {
+        if (getItems().isEmpty() && !fetchPending) {
             throw new IllegalStateException("Cannot set a value before possible options have initialized. " +
                     "Use one of the existing setItems(...) methods or the proper constructor to initialize the available items before calling setValue().");
         }
@@ -341,34 +1437,194 @@ public class ToggleButtonGroup<T> extends CustomField<T> {
     protected void fireValueChangeEvent(T oldValue, T newValue, boolean fromClient) {
         updateStyles(oldValue, newValue);
 
-        if (!Objects.equals(itemIdGenerator.apply(oldValue), itemIdGenerator.apply(newValue))) {
+        if (!Objects.equals(getItemId(oldValue), getItemId(newValue))) {
             fireEvent(new AbstractField.ComponentValueChangeEvent<>(this, this, oldValue, fromClient));
         }
     }
 
     private void updateStyles(T oldValue, T newValue) {
+        restoreTransientState();
+        if (itemsElement != null) {
+            itemsElement.setSelected(indexOfItem(newValue));
+            return;
+        }
+        if (virtualItems != null) {
+            virtualItems.setSelectedKey(getSelectedKey());
+            return;
+        }
+        if (visibleItemIndexes != null && getButton(getItemId(newValue)) == null && indexOfItem(newValue) >= 0) {
+            // the newly selected item is in the overflow menu, it gets a button of its own
+            scheduleInit();
+        }
         if (oldValue != null) {
-            Serializable oldSelectedId = itemIdGenerator.apply(oldValue);
-            Button oldSelected = idToButtonMap.get(oldSelectedId);
-            String oldSelectedCustomClass = selectedItemClassNameGenerator.apply(oldValue);
+            Button oldSelected = getButton(getItemId(oldValue));
             if (oldSelected != null) {
-                if (StringUtils.isNotBlank(oldSelectedCustomClass)) {
-                    oldSelected.removeClassName(oldSelectedCustomClass);
-                } else {
-                    oldSelected.removeThemeVariants(ButtonVariant.LUMO_PRIMARY);
-                }
+                applySelectedStyle(oldSelected, getSelectedItemClassName(oldValue), false);
             }
         }
 
-        Serializable newSelectedId = itemIdGenerator.apply(newValue);
-        Optional.ofNullable(idToButtonMap.get(newSelectedId)).ifPresent(newSelected -> {
-            String newSelectedCustomClass = selectedItemClassNameGenerator.apply(newValue);
-            if (StringUtils.isNotBlank((newSelectedCustomClass))) {
-                newSelected.addClassName(newSelectedCustomClass);
+        Object newSelectedId = getItemId(newValue);
+        Optional.ofNullable(getButton(newSelectedId)).ifPresent(newSelected ->
+                applySelectedStyle(newSelected, getSelectedItemClassName(newValue), true));
+        updateOptimisticProperties();
+    }
+
+    // the custom selected class of the item, or the primary theme variant when it has none
+    private static void applySelectedStyle(Button button, String selectedClassName, boolean selected) {
+        if (StringUtils.isNotBlank(selectedClassName)) {
+            button.setClassName(selectedClassName, selected);
+        } else if (selected) {
+            button.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
+        } else {
+            button.removeThemeVariants(ButtonVariant.LUMO_PRIMARY);
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        renderedItems = List.of();
+        buttons = new Button[0];
+        itemIdIndex = ItemIdIndex.EMPTY;
+        itemMetadataCache = new IdentityHashMap<>();
+        // the layout may not be completely deserialized yet, the rest is restored on first use
+        transientStateStale = true;
+    }
+
+    // the buttons in the layout are in the same order as the items, unless a rebuild was still pending
+    private void restoreTransientState() {
+        if (!transientStateStale) {
+            return;
+        }
+        transientStateStale = false;
+        if (initScheduled) {
+            recreateButtons = true;
+            return;
+        }
+        renderedItems = items;
+        itemIdIndex = template != null ? template.getItemIdIndex() : createItemIdIndex(items.stream()
+                .map(item -> getItemMetadata(item).id)
+                .toArray());
+        if (layout != null) {
+            Button[] layoutButtons = layout.getElement().getChildren()
+                    .flatMap(element -> element.getComponent().stream())
+                    .filter(component -> component instanceof Button && component != moreButton)
+                    .limit(items.size())
+                    .toArray(Button[]::new);
+            if (visibleItemIndexes == null) {
+                buttons = layoutButtons;
             } else {
-                newSelected.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
+                buttons = new Button[items.size()];
+                for (int position = 0; position < layoutButtons.length; position++) {
+                    buttons[visibleItemIndexes[position]] = layoutButtons[position];
+                }
             }
-        });
+        }
+    }
+
+    // package-private hook for groups that know a denser index than the hash of the item ids
+    ItemIdIndex createItemIdIndex(Object[] itemIds) {
+        return uniqueItemIds ? ItemIdIndex.ofUniqueIds(itemIds) : ItemIdIndex.of(itemIds);
+    }
+
+    private Button getButton(Object itemId) {
+        int index = itemIdIndex.indexOf(itemId);
+        return index >= 0 && index < buttons.length ? buttons[index] : null;
+    }
+
+    private int indexOfButton(Button button) {
+        for (int i = 0; i < buttons.length; i++) {
+            if (buttons[i] == button) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private ItemMetadata getItemMetadata(T item) {
+        ItemMetadata metadata = template != null ? template.getItemMetadata(item) : null;
+        return metadata != null ? metadata : itemMetadataCache.computeIfAbsent(item, this::createItemMetadata);
+    }
+
+    // null for the items that are not (or no longer) part of the group, those aren't cached
+    private ItemMetadata findItemMetadata(T item) {
+        ItemMetadata metadata = template != null ? template.getItemMetadata(item) : null;
+        return metadata != null ? metadata : itemMetadataCache.get(item);
+    }
+
+    // the icon is generated only for its name here, the buttons get icons of their own
+    ItemMetadata createItemMetadata(T item) {
+        return new ItemMetadata(toItemId(itemIdGenerator, item),
+                itemLabelGenerator.apply(item),
+                selectedItemClassNameGenerator.apply(item),
+                itemIconGenerator != null ? getIconName(itemIconGenerator.apply(item)) : null,
+                itemTooltipTextGenerator != null ? itemTooltipTextGenerator.apply(item) : null,
+                itemEnabledProvider.apply(item));
+    }
+
+    private Object getItemId(T item) {
+        ItemMetadata metadata = findItemMetadata(item);
+        return metadata != null ? metadata.id : toItemId(itemIdGenerator, item);
+    }
+
+    // a null value has no id, the generators don't have to accept null
+    private static <T> Object toItemId(SerializableFunction<T, Serializable> itemIdGenerator, T item) {
+        return itemIdGenerator != null && item != null ? itemIdGenerator.apply(item) : item;
+    }
+
+    private String getSelectedItemClassName(T item) {
+        ItemMetadata metadata = findItemMetadata(item);
+        return metadata != null ? metadata.selectedClassName : selectedItemClassNameGenerator.apply(item);
+    }
+
+    // lists the items without a button, populated every time it's opened
+    private class OverflowMenu extends ContextMenu {
+
+        private OverflowMenu(Component target) {
+            super(target);
+            setOpenOnClick(true);
+        }
+
+        @Override
+        protected boolean onBeforeOpenMenu(JsonObject eventDetail) {
+            removeAll();
+            restoreTransientState();
+            for (int i = 0; i < renderedItems.size(); i++) {
+                if (i < buttons.length && buttons[i] != null) {
+                    continue;
+                }
+                int index = i;
+                ItemMetadata metadata = getItemMetadata(renderedItems.get(i));
+                MenuItem menuItem = addItem(metadata.label, event -> buttonClicked(index, true));
+                menuItem.setEnabled(getEnabled() && metadata.enabled && !isReadOnly());
+            }
+            return true;
+        }
+    }
+
+    // the generators' results for one item, computed once and invalidated by setItems, refreshItems and the setters.
+    // Immutable, so the ones of a ToggleButtonGroupTemplate are shared by all the groups created from it.
+    static final class ItemMetadata implements Serializable {
+        private final Object id;
+        private final String label;
+        private final String selectedClassName;
+        // not the Icon, a component can't be shared by several buttons or groups and would pin its state node:
+        private final String iconName;
+        private final String tooltip;
+        private final boolean enabled;
+
+        private ItemMetadata(Object id, String label, String selectedClassName, String iconName, String tooltip,
+                             boolean enabled) {
+            this.id = id;
+            this.label = label;
+            this.selectedClassName = selectedClassName;
+            this.iconName = iconName;
+            this.tooltip = tooltip;
+            this.enabled = enabled;
+        }
+
+        Object getId() {
+            return id;
+        }
     }
 
     @Override
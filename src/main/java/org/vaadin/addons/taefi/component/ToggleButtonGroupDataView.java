@@ -0,0 +1,30 @@
+package org.vaadin.addons.taefi.component;
+
+import com.vaadin.flow.data.provider.AbstractDataView;
+import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.function.SerializableSupplier;
+
+import java.util.*;
+
+// the items of a ToggleButtonGroup backed by any DataProvider
+public class ToggleButtonGroupDataView<T> extends AbstractDataView<T> {
+
+    public ToggleButtonGroupDataView(SerializableSupplier<DataProvider<T, ?>> dataProviderSupplier,
+                                     ToggleButtonGroup<T> toggleButtonGroup) {
+        super(dataProviderSupplier, toggleButtonGroup);
+    }
+
+    // the index of the item among the buttons, so the items the group already fetched aren't queried again
+    @Override
+    @SuppressWarnings("unchecked")
+    public T getItem(int index) {
+        List<T> items = ((ToggleButtonGroup<T>) component).getItems();
+        Objects.checkIndex(index, items.size());
+        return items.get(index);
+    }
+
+    @Override
+    protected Class<?> getSupportedDataProviderType() {
+        return DataProvider.class;
+    }
+}
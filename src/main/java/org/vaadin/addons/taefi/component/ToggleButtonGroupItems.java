@@ -0,0 +1,63 @@
+package org.vaadin.addons.taefi.component;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.Tag;
+import com.vaadin.flow.component.dependency.JsModule;
+import com.vaadin.flow.data.value.ValueChangeMode;
+import com.vaadin.flow.dom.DomListenerRegistration;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.shared.Registration;
+import elemental.json.JsonArray;
+import elemental.json.JsonValue;
+
+@Tag("toggle-button-group-items")
+@JsModule("./addons-components/toggle-button-group-items.ts")
+class ToggleButtonGroupItems extends Component {
+
+    private static final String SELECTED_VALUE = "event.detail.value";
+
+    void setItems(JsonArray items) {
+        getElement().setPropertyJson("items", items);
+    }
+
+    void setSelected(int index) {
+        getElement().setProperty("selected", index);
+    }
+
+    void setOrientation(String orientationStylePostfix) {
+        getElement().setProperty("orientation", orientationStylePostfix);
+    }
+
+    void setToggleable(boolean toggleable) {
+        getElement().setProperty("toggleable", toggleable);
+    }
+
+    void setOptimistic(boolean optimistic) {
+        getElement().setProperty("optimistic", optimistic);
+    }
+
+    Registration addSelectedChangeListener(SerializableConsumer<Integer> listener, ValueChangeMode valueChangeMode,
+                                           int valueChangeTimeout) {
+        return addSelectedChangeListener(getElement(), "selected", value -> listener.accept((int) value.asNumber()),
+                valueChangeMode, valueChangeTimeout);
+    }
+
+    // for the elements that render the items on the client: the selection they fire in the event detail, as the
+    // index or the key of the selected item. The selected property is synchronized as well, so the server notices
+    // when an optimistic client shows a selection it didn't accept and sends the old one back. With
+    // ON_BLUR/ON_CHANGE only the selection the element commits when the focus leaves it is sent, LAZY/TIMEOUT
+    // debounce/throttle the changes.
+    static Registration addSelectedChangeListener(Element element, String selectedProperty,
+                                                  SerializableConsumer<JsonValue> listener,
+                                                  ValueChangeMode valueChangeMode, int valueChangeTimeout) {
+        String eventName = valueChangeMode == ValueChangeMode.ON_BLUR || valueChangeMode == ValueChangeMode.ON_CHANGE
+                ? "selected-committed" : "selected-changed";
+        DomListenerRegistration registration = element.addEventListener(eventName,
+                        event -> listener.accept(event.getEventData().get(SELECTED_VALUE)))
+                .addEventData(SELECTED_VALUE)
+                .synchronizeProperty(selectedProperty);
+        ValueChangeMode.applyChangeTimeout(valueChangeMode, valueChangeTimeout, registration);
+        return registration;
+    }
+}
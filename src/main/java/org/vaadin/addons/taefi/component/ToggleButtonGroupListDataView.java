@@ -0,0 +1,34 @@
+package org.vaadin.addons.taefi.component;
+
+import com.vaadin.flow.data.provider.AbstractListDataView;
+import com.vaadin.flow.data.provider.DataCommunicator;
+import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.function.SerializableBiConsumer;
+import com.vaadin.flow.function.SerializableComparator;
+import com.vaadin.flow.function.SerializablePredicate;
+import com.vaadin.flow.function.SerializableSupplier;
+
+// the items of a ToggleButtonGroup backed by a ListDataProvider. Adding, removing, filtering and sorting items
+// refreshes the group, which only creates the buttons of the new items.
+public class ToggleButtonGroupListDataView<T> extends AbstractListDataView<T> {
+
+    public ToggleButtonGroupListDataView(SerializableSupplier<DataProvider<T, ?>> dataProviderSupplier,
+                                         ToggleButtonGroup<T> toggleButtonGroup,
+                                         SerializableBiConsumer<SerializablePredicate<T>, SerializableComparator<T>>
+                                                 filterOrSortingChangedCallback) {
+        super(dataProviderSupplier, toggleButtonGroup, filterOrSortingChangedCallback);
+    }
+
+    // AbstractDataView gets the data provider right away to verify its type. This data view doesn't ask for it until
+    // it's used, so a group with a plain list of items doesn't create a ListDataProvider for a view nobody uses.
+    static <T> ToggleButtonGroupListDataView<T> deferred(SerializableSupplier<DataProvider<T, ?>> dataProviderSupplier,
+                                                         ToggleButtonGroup<T> toggleButtonGroup,
+                                                         SerializableBiConsumer<SerializablePredicate<T>,
+                                                                 SerializableComparator<T>>
+                                                                 filterOrSortingChangedCallback) {
+        ToggleButtonGroupListDataView<T> dataView = new ToggleButtonGroupListDataView<>(
+                DataCommunicator.EmptyDataProvider::new, toggleButtonGroup, filterOrSortingChangedCallback);
+        dataView.dataProviderSupplier = dataProviderSupplier;
+        return dataView;
+    }
+}
@@ -0,0 +1,138 @@
+package org.vaadin.addons.taefi.component;
+
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.data.provider.DataKeyMapper;
+import com.vaadin.flow.data.renderer.LitRenderer;
+import com.vaadin.flow.data.renderer.Renderer;
+import com.vaadin.flow.data.renderer.Rendering;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.function.SerializableBiConsumer;
+import com.vaadin.flow.function.SerializableFunction;
+import com.vaadin.flow.function.ValueProvider;
+import elemental.json.Json;
+
+import java.util.*;
+
+// renders a toggle button group in every row of a Grid (or any other component with LitRenderer support) without
+// creating server-side components for the rows. The buttons of the items are part of the template, which is sent to
+// the browser once, so a row only costs the index of its selected item. A click calls the selection callback with the
+// row and the newly selected item (null when a toggleable selection is removed), after which the row is refreshed to
+// show the value the callback has set. The buttons are styled by toggle-button-group.css.
+public class ToggleButtonGroupRenderer<R, T> extends Renderer<R> {
+
+    private final List<T> items;
+    private final ValueProvider<R, T> valueGetter;
+    private final SerializableBiConsumer<R, T> selectionCallback;
+    private SerializableFunction<T, String> itemLabelGenerator = Object::toString;
+    private SerializableFunction<T, Boolean> itemEnabledProvider = item -> Boolean.TRUE;
+    private ToggleButtonGroup.Orientation orientation = ToggleButtonGroup.Orientation.HORIZONTAL;
+    private boolean toggleable = true;
+    private transient ItemIdIndex itemIdIndex;
+
+    public ToggleButtonGroupRenderer(List<T> items, ValueProvider<R, T> valueGetter,
+                                     SerializableBiConsumer<R, T> selectionCallback) {
+        this.items = new ArrayList<>(items);
+        this.valueGetter = Objects.requireNonNull(valueGetter);
+        this.selectionCallback = Objects.requireNonNull(selectionCallback);
+    }
+
+    public List<T> getItems() {
+        return Collections.unmodifiableList(items);
+    }
+
+    public SerializableFunction<T, String> getItemLabelGenerator() {
+        return itemLabelGenerator;
+    }
+
+    // like the other setters, applies to the columns rendered after the call
+    public void setItemLabelGenerator(SerializableFunction<T, String> itemLabelGenerator) {
+        this.itemLabelGenerator = Objects.requireNonNull(itemLabelGenerator);
+    }
+
+    public SerializableFunction<T, Boolean> getItemEnabledProvider() {
+        return itemEnabledProvider;
+    }
+
+    public void setItemEnabledProvider(SerializableFunction<T, Boolean> itemEnabledProvider) {
+        this.itemEnabledProvider = Objects.requireNonNull(itemEnabledProvider);
+    }
+
+    public ToggleButtonGroup.Orientation getOrientation() {
+        return orientation;
+    }
+
+    // RESPONSIVE needs a container of its own, so it's rendered as HORIZONTAL
+    public void setOrientation(ToggleButtonGroup.Orientation orientation) {
+        this.orientation = Objects.requireNonNull(orientation);
+    }
+
+    public boolean isToggleable() {
+        return toggleable;
+    }
+
+    public void setToggleable(boolean toggleable) {
+        this.toggleable = toggleable;
+    }
+
+    @Override
+    public Rendering<R> render(Element container, DataKeyMapper<R> keyMapper, String rendererName) {
+        // the styles come with the dependencies of ToggleButtonGroup, which may not be on the page otherwise
+        container.getNode().runWhenAttached(
+                ui -> ui.getInternals().addComponentDependencies(ToggleButtonGroup.class));
+        return createLitRenderer(container).render(container, keyMapper, rendererName);
+    }
+
+    LitRenderer<R> createLitRenderer(Element container) {
+        return LitRenderer.<R>of(createTemplate())
+                .withProperty("selected", row -> getItemIdIndex().indexOf(valueGetter.apply(row)))
+                .withFunction("select", (row, args) -> buttonClicked(container, row, (int) args.getNumber(0)));
+    }
+
+    // the labels are JSON string literals in expressions of the template, so they are neither HTML nor lit markup
+    private String createTemplate() {
+        String postfix = orientation == ToggleButtonGroup.Orientation.VERTICAL ? "v" : "h";
+        StringBuilder template = new StringBuilder()
+                .append("<div class=\"toggle-button-group-renderer toggle-button-group-buttons-")
+                .append(postfix).append("\">");
+        for (int i = 0; i < items.size(); i++) {
+            T item = items.get(i);
+            template.append("<vaadin-button theme=\"${item.selected === ").append(i).append(" ? 'primary' : ''}\"");
+            if (!itemEnabledProvider.apply(item)) {
+                template.append(" disabled");
+            }
+            template.append(" @click=\"${() => select(").append(i).append(")}\">")
+                    .append("${").append(Json.create(itemLabelGenerator.apply(item)).toJson()).append("}")
+                    .append("</vaadin-button>");
+        }
+        return template.append("</div>").toString();
+    }
+
+    void buttonClicked(Element container, R row, int index) {
+        if (index < 0 || index >= items.size() || !itemEnabledProvider.apply(items.get(index))) {
+            return;
+        }
+        boolean selected = getItemIdIndex().indexOf(valueGetter.apply(row)) == index;
+        if (selected && !toggleable) {
+            return;
+        }
+        selectionCallback.accept(row, selected ? null : items.get(index));
+        refreshRow(container, row);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void refreshRow(Element container, R row) {
+        for (Element element = container; element != null; element = element.getParent()) {
+            if (element.getComponent().orElse(null) instanceof Grid<?> grid) {
+                ((Grid<R>) grid).getDataCommunicator().refresh(row);
+                return;
+            }
+        }
+    }
+
+    private ItemIdIndex getItemIdIndex() {
+        if (itemIdIndex == null) {
+            itemIdIndex = ItemIdIndex.of(items.toArray());
+        }
+        return itemIdIndex;
+    }
+}
@@ -0,0 +1,137 @@
+package org.vaadin.addons.taefi.component;
+
+import com.vaadin.flow.component.icon.Icon;
+import com.vaadin.flow.function.SerializableFunction;
+
+import java.io.Serializable;
+import java.util.*;
+
+// the items of a configured ToggleButtonGroup with everything the generators and the itemOrderProvider computed for
+// them. Groups created from it share all of that and only keep their selection and state of their own. Immutable, so
+// it can be shared across sessions as long as the items aren't mutated and the generators don't depend on the
+// session. A group that gets other items or generators than the template's stops using it.
+public final class ToggleButtonGroupTemplate<T> implements Serializable {
+
+    private final List<T> items;
+    private final List<T> sortedItems;
+    private final SerializableFunction<T, String> itemLabelGenerator;
+    private final SerializableFunction<T, String> selectedItemClassNameGenerator;
+    private final SerializableFunction<T, Icon> itemIconGenerator;
+    private final SerializableFunction<T, String> itemTooltipTextGenerator;
+    private final SerializableFunction<T, Boolean> itemEnabledProvider;
+    private final SerializableFunction<T, Serializable> itemIdGenerator;
+    private final SerializableFunction<T, Integer> itemOrderProvider;
+    private final boolean uniqueItemIds;
+    private final ToggleButtonGroup.Orientation orientation;
+    private final boolean structuralStyling;
+    // by the identity of the items, like the metadata cache of a group:
+    private final Map<T, ToggleButtonGroup.ItemMetadata> itemMetadata;
+    // the ids of the sorted items, read but never written by the groups:
+    private final Object[] itemIds;
+    // not serialized, the hashes of the ids may differ in another JVM. An index built twice by racing threads is
+    // equal and immutable, so it doesn't need to be synchronized.
+    private transient ItemIdIndex itemIdIndex;
+
+    private ToggleButtonGroupTemplate(ToggleButtonGroup<T> prototype) {
+        items = Collections.unmodifiableList(new ArrayList<>(prototype.getOriginalItems()));
+        itemLabelGenerator = (SerializableFunction<T, String>) prototype.getItemLabelGenerator();
+        selectedItemClassNameGenerator = prototype.getSelectedItemClassNameGenerator();
+        itemIconGenerator = prototype.getItemIconGenerator();
+        itemTooltipTextGenerator = prototype.getItemTooltipTextGenerator();
+        itemEnabledProvider = prototype.getItemEnabledProvider();
+        itemIdGenerator = prototype.getCustomItemIdGenerator();
+        itemOrderProvider = prototype.getItemOrderProvider();
+        uniqueItemIds = prototype.isUniqueItemIds();
+        orientation = prototype.getOrientation();
+        structuralStyling = prototype.isStructuralStyling();
+
+        List<T> sorted = ToggleButtonGroup.sortItems(items, itemOrderProvider);
+        sortedItems = sorted == items ? items : Collections.unmodifiableList(sorted);
+        Map<T, ToggleButtonGroup.ItemMetadata> metadata = new IdentityHashMap<>();
+        itemIds = new Object[sortedItems.size()];
+        for (int i = 0; i < itemIds.length; i++) {
+            itemIds[i] = metadata.computeIfAbsent(sortedItems.get(i),
+                    item -> prototype.createItemMetadata(item)).getId();
+        }
+        itemMetadata = Collections.unmodifiableMap(metadata);
+        itemIdIndex = prototype.createItemIdIndex(itemIds);
+    }
+
+    // the items (fetched if the prototype has a data provider) and the configuration of the prototype, which isn't
+    // referenced by the template afterwards
+    public static <T> ToggleButtonGroupTemplate<T> of(ToggleButtonGroup<T> prototype) {
+        return new ToggleButtonGroupTemplate<>(prototype);
+    }
+
+    // in the order they were given, unmodifiable
+    public List<T> getItems() {
+        return items;
+    }
+
+    List<T> getSortedItems() {
+        return sortedItems;
+    }
+
+    public SerializableFunction<T, String> getItemLabelGenerator() {
+        return itemLabelGenerator;
+    }
+
+    public SerializableFunction<T, String> getSelectedItemClassNameGenerator() {
+        return selectedItemClassNameGenerator;
+    }
+
+    public SerializableFunction<T, Icon> getItemIconGenerator() {
+        return itemIconGenerator;
+    }
+
+    public SerializableFunction<T, String> getItemTooltipTextGenerator() {
+        return itemTooltipTextGenerator;
+    }
+
+    public SerializableFunction<T, Boolean> getItemEnabledProvider() {
+        return itemEnabledProvider;
+    }
+
+    public SerializableFunction<T, Serializable> getItemIdGenerator() {
+        return ToggleButtonGroup.orItemsAsIds(itemIdGenerator);
+    }
+
+    // null when the items are their own ids
+    SerializableFunction<T, Serializable> getCustomItemIdGenerator() {
+        return itemIdGenerator;
+    }
+
+    public SerializableFunction<T, Integer> getItemOrderProvider() {
+        return itemOrderProvider;
+    }
+
+    public boolean isUniqueItemIds() {
+        return uniqueItemIds;
+    }
+
+    public ToggleButtonGroup.Orientation getOrientation() {
+        return orientation;
+    }
+
+    public boolean isStructuralStyling() {
+        return structuralStyling;
+    }
+
+    // null for an item that isn't one of the template's
+    ToggleButtonGroup.ItemMetadata getItemMetadata(T item) {
+        return itemMetadata.get(item);
+    }
+
+    Object[] getItemIds() {
+        return itemIds;
+    }
+
+    ItemIdIndex getItemIdIndex() {
+        ItemIdIndex index = itemIdIndex;
+        if (index == null) {
+            index = uniqueItemIds ? ItemIdIndex.ofUniqueIds(itemIds) : ItemIdIndex.of(itemIds);
+            itemIdIndex = index;
+        }
+        return index;
+    }
+}
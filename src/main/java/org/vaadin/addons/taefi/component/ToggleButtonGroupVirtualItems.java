@@ -0,0 +1,63 @@
+package org.vaadin.addons.taefi.component;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.Tag;
+import com.vaadin.flow.component.dependency.JsModule;
+import com.vaadin.flow.data.value.ValueChangeMode;
+import com.vaadin.flow.function.SerializableBiConsumer;
+import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.shared.Registration;
+import elemental.json.JsonArray;
+import elemental.json.JsonType;
+
+@Tag("toggle-button-group-virtual-items")
+@JsModule("./addons-components/toggle-button-group-virtual-items.ts")
+class ToggleButtonGroupVirtualItems extends Component {
+
+    private static final String RANGE_START = "event.detail.start";
+    private static final String RANGE_END = "event.detail.end";
+
+    private int revision;
+
+    // the items the element already loaded are dropped and the visible ones are requested again
+    void reset(int size) {
+        getElement().setProperty("size", size);
+        getElement().setProperty("revision", ++revision);
+    }
+
+    void setRange(int start, JsonArray items) {
+        getElement().callJsFunction("setRange", start, items, revision);
+    }
+
+    void setSelectedKey(String key) {
+        getElement().setProperty("selectedKey", key);
+    }
+
+    void setOrientation(String orientationStylePostfix) {
+        getElement().setProperty("orientation", orientationStylePostfix);
+    }
+
+    void setToggleable(boolean toggleable) {
+        getElement().setProperty("toggleable", toggleable);
+    }
+
+    void setOptimistic(boolean optimistic) {
+        getElement().setProperty("optimistic", optimistic);
+    }
+
+    Registration addRangeRequestedListener(SerializableBiConsumer<Integer, Integer> listener) {
+        return getElement().addEventListener("range-requested", event -> listener.accept(
+                        (int) event.getEventData().getNumber(RANGE_START),
+                        (int) event.getEventData().getNumber(RANGE_END)))
+                .addEventData(RANGE_START)
+                .addEventData(RANGE_END);
+    }
+
+    // the key of the selected item, null for no selection
+    Registration addSelectedChangeListener(SerializableConsumer<String> listener, ValueChangeMode valueChangeMode,
+                                           int valueChangeTimeout) {
+        return ToggleButtonGroupItems.addSelectedChangeListener(getElement(), "selectedKey",
+                key -> listener.accept(key == null || key.getType() == JsonType.NULL ? null : key.asString()),
+                valueChangeMode, valueChangeTimeout);
+    }
+}
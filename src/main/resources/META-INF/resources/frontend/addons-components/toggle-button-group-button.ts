@@ -0,0 +1,54 @@
+import { html, nothing } from 'lit';
+import { ifDefined } from 'lit/directives/if-defined.js';
+import '@vaadin/button';
+import '@vaadin/icon';
+import '@vaadin/icons';
+import '@vaadin/tooltip';
+
+export interface ToggleButtonGroupButtonItem {
+  label: string;
+  enabled: boolean;
+  icon?: string;
+  tooltip?: string;
+  selectedClassName?: string;
+}
+
+/**
+ * The buttons of the elements that render the items of a ToggleButtonGroup on the client. The elements render into
+ * the light DOM, so that the styles of toggle-button-group.css apply to these buttons the same way they do to the
+ * ones of the server-side layout. An item that isn't loaded (yet) is a disabled, empty button.
+ */
+export function renderButton(
+  item: ToggleButtonGroupButtonItem | undefined,
+  index: number,
+  count: number,
+  orientation: string,
+  selected: boolean,
+  onClick: () => void
+) {
+  const classNames = [`toggle-button-group-button-${orientation}`, getPositionClass(index, count, orientation)];
+  if (selected && item?.selectedClassName) {
+    classNames.push(item.selectedClassName);
+  }
+  return html`
+    <vaadin-button
+      class="${classNames.join(' ')}"
+      theme="${ifDefined(selected && !item?.selectedClassName ? 'primary' : undefined)}"
+      ?disabled="${!item || !item.enabled}"
+      @click="${onClick}">
+      ${item?.icon ? html`<vaadin-icon slot="prefix" icon="${item.icon}"></vaadin-icon>` : nothing}
+      ${item ? item.label : nothing}
+      ${item?.tooltip ? html`<vaadin-tooltip slot="tooltip" text="${item.tooltip}"></vaadin-tooltip>` : nothing}
+    </vaadin-button>
+  `;
+}
+
+export function getPositionClass(index: number, count: number, orientation: string) {
+  if (index === 0) {
+    return `toggle-button-group-first-button-${orientation}`;
+  }
+  if (index === count - 1) {
+    return `toggle-button-group-last-button-${orientation}`;
+  }
+  return `toggle-button-group-middle-button-${orientation}`;
+}
@@ -0,0 +1,106 @@
+type ToggleButtonGroupLayout = HTMLElement & {
+  $toggleButtonGroupConnector?: boolean;
+  $uncommitted?: boolean;
+  optimistic?: boolean;
+  coalesce?: boolean;
+  toggleable?: boolean;
+  selectedIndex?: number;
+};
+
+// the more button of the overflow menu isn't one of the items
+const MORE_BUTTON_CLASS = 'toggle-button-group-more-button';
+
+function isItemButton(element: Element) {
+  return element.localName === 'vaadin-button' && !element.classList.contains(MORE_BUTTON_CLASS);
+}
+
+function getButtons(layout: ToggleButtonGroupLayout): Element[] {
+  return Array.from(layout.children).filter(isItemButton);
+}
+
+// mirrors ToggleButtonGroup.updateStyles: a custom selected class replaces the primary theme variant
+function setButtonSelected(button: Element, selected: boolean) {
+  const selectedClassName = button.getAttribute('selected-class');
+  if (selectedClassName) {
+    button.classList.toggle(selectedClassName, selected);
+    return;
+  }
+  const themes = (button.getAttribute('theme') || '').split(' ').filter((theme) => theme && theme !== 'primary');
+  if (selected) {
+    themes.push('primary');
+  }
+  if (themes.length > 0) {
+    button.setAttribute('theme', themes.join(' '));
+  } else {
+    button.removeAttribute('theme');
+  }
+}
+
+function select(layout: ToggleButtonGroupLayout, index: number) {
+  getButtons(layout).forEach((button, i) => setButtonSelected(button, i === index));
+  layout.selectedIndex = index;
+}
+
+function getClickedButton(layout: ToggleButtonGroupLayout, event: Event): Element | null {
+  const button = (event.target as Element).closest('vaadin-button');
+  return button && button.parentElement === layout && isItemButton(button) ? button : null;
+}
+
+function selectClicked(layout: ToggleButtonGroupLayout, button: Element) {
+  const index = getButtons(layout).indexOf(button);
+  select(layout, layout.toggleable && index === layout.selectedIndex ? -1 : index);
+}
+
+function dispatchSelection(layout: ToggleButtonGroupLayout, type: string) {
+  layout.dispatchEvent(new CustomEvent(type, { detail: { index: layout.selectedIndex } }));
+}
+
+/**
+ * Highlights the clicked button of a ToggleButtonGroup right away instead of waiting for the server. The server still
+ * handles the click as usual and only calls select() to roll back when it didn't accept the predicted selection.
+ *
+ * With a coalescing value change mode the clicks don't reach the buttons at all. Every click fires a
+ * 'toggle-button-group-change' event that the server listens to with a debounce/throttle timeout, and leaving the
+ * group fires a single 'toggle-button-group-commit' event for the ON_BLUR mode.
+ */
+function initLayout(layout: ToggleButtonGroupLayout) {
+  if (layout.$toggleButtonGroupConnector) {
+    return;
+  }
+  layout.$toggleButtonGroupConnector = true;
+  layout.addEventListener(
+    'click',
+    (event) => {
+      const button = layout.coalesce ? getClickedButton(layout, event) : null;
+      if (!button) {
+        return;
+      }
+      // keeps the click away from the server-side click listener, which is on the bubbling phase
+      event.stopPropagation();
+      if (button.hasAttribute('disabled')) {
+        return;
+      }
+      selectClicked(layout, button);
+      layout.$uncommitted = true;
+      dispatchSelection(layout, 'toggle-button-group-change');
+    },
+    true
+  );
+  layout.addEventListener('click', (event) => {
+    const button = layout.optimistic ? getClickedButton(layout, event) : null;
+    if (button && !button.hasAttribute('disabled')) {
+      selectClicked(layout, button);
+    }
+  });
+  layout.addEventListener('focusout', (event) => {
+    if (layout.$uncommitted && !layout.contains((event as FocusEvent).relatedTarget as Node)) {
+      layout.$uncommitted = false;
+      dispatchSelection(layout, 'toggle-button-group-commit');
+    }
+  });
+}
+
+const w = window as any;
+w.Vaadin = w.Vaadin || {};
+w.Vaadin.Flow = w.Vaadin.Flow || {};
+w.Vaadin.Flow.toggleButtonGroupConnector = { initLayout, select };
@@ -0,0 +1,60 @@
+import { html, LitElement } from 'lit';
+import { customElement, property } from 'lit/decorators.js';
+import { renderButton, ToggleButtonGroupButtonItem } from './toggle-button-group-button.js';
+
+/**
+ * Renders all the items of a ToggleButtonGroup on the client, so the server only keeps the items as a JSON array.
+ * A click is published to the server as a single 'selected-changed' event carrying the index of the newly selected
+ * item (-1 when the selection is toggled off). When the focus leaves the element after a change, a
+ * 'selected-committed' event carries the selection as well (for the ON_BLUR value change mode).
+ */
+@customElement('toggle-button-group-items')
+export class ToggleButtonGroupItems extends LitElement {
+  @property({ type: Array })
+  items: ToggleButtonGroupButtonItem[] = [];
+
+  @property({ type: Number })
+  selected = -1;
+
+  @property({ type: String, reflect: true })
+  orientation = 'h';
+
+  @property({ type: Boolean })
+  toggleable = true;
+
+  // select the clicked item right away, the server confirms it or sets the previous index back
+  @property({ type: Boolean })
+  optimistic = false;
+
+  private uncommitted = false;
+
+  constructor() {
+    super();
+    this.addEventListener('focusout', (event) => {
+      if (this.uncommitted && !this.contains(event.relatedTarget as Node)) {
+        this.uncommitted = false;
+        this.dispatchEvent(new CustomEvent('selected-committed', { detail: { value: this.selected } }));
+      }
+    });
+  }
+
+  protected createRenderRoot() {
+    return this;
+  }
+
+  protected render() {
+    const count = this.items.length;
+    return html`${this.items.map((item, index) =>
+      renderButton(item, index, count, this.orientation, index === this.selected, () => this.onItemClick(index))
+    )}`;
+  }
+
+  private onItemClick(index: number) {
+    const value = this.toggleable && index === this.selected ? -1 : index;
+    if (this.optimistic) {
+      this.selected = value;
+    }
+    this.uncommitted = true;
+    this.dispatchEvent(new CustomEvent('selected-changed', { detail: { value } }));
+  }
+}
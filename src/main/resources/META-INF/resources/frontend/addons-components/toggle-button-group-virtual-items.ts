@@ -0,0 +1,164 @@
+import { html, LitElement } from 'lit';
+import { customElement, property, state } from 'lit/decorators.js';
+import { renderButton, ToggleButtonGroupButtonItem } from './toggle-button-group-button.js';
+
+interface ToggleButtonGroupVirtualItem extends ToggleButtonGroupButtonItem {
+  key: string;
+}
+
+// the buttons rendered before and after the visible ones, so a short scroll doesn't show empty placeholders
+const OVERSCAN = 5;
+
+/**
+ * Renders the buttons of a ToggleButtonGroup that are visible in a scrollable viewport only. The element knows the
+ * number of items and keeps the items around the visible ones; the missing ones are requested from the server with a
+ * 'range-requested' event (start inclusive, end exclusive) and arrive through setRange(). All buttons have the size of
+ * the first rendered one, which is what the scroll position is mapped to the item indexes with. The server increments
+ * the revision when the items changed, which drops the loaded ones.
+ *
+ * The selection is tracked by the key of the item, since the selected item may not be loaded at all. A click fires
+ * 'selected-changed' with the key of the newly selected item (null when the selection is toggled off), and the
+ * ON_BLUR value change mode gets a 'selected-committed' event when the focus leaves the element after a change.
+ */
+@customElement('toggle-button-group-virtual-items')
+export class ToggleButtonGroupVirtualItems extends LitElement {
+  @property({ type: Number })
+  size = 0;
+
+  @property({ type: String })
+  selectedKey: string | null = null;
+
+  @property({ type: String, reflect: true })
+  orientation = 'h';
+
+  @property({ type: Boolean })
+  toggleable = true;
+
+  @property({ type: Boolean })
+  optimistic = false;
+
+  @property({ type: Number })
+  revision = 0;
+
+  @state()
+  private first = 0;
+
+  @state()
+  private last = 0;
+
+  private items = new Map<number, ToggleButtonGroupVirtualItem>();
+
+  private requested = false;
+
+  private itemSize = 36;
+
+  private uncommitted = false;
+
+  constructor() {
+    super();
+    this.addEventListener('scroll', () => this.updateRange());
+    this.addEventListener('focusout', (event) => {
+      if (this.uncommitted && !this.contains(event.relatedTarget as Node)) {
+        this.uncommitted = false;
+        this.dispatchEvent(new CustomEvent('selected-committed', { detail: { value: this.selectedKey } }));
+      }
+    });
+  }
+
+  // called by the server with the items from index start on
+  setRange(start: number, items: ToggleButtonGroupVirtualItem[], revision: number) {
+    if (revision !== this.revision) {
+      return;
+    }
+    items.forEach((item, i) => this.items.set(start + i, item));
+    // only the items around the visible ones are kept:
+    const keepFirst = this.first - OVERSCAN * 2;
+    const keepLast = this.last + OVERSCAN * 2;
+    this.items.forEach((_, index) => {
+      if (index < keepFirst || index >= keepLast) {
+        this.items.delete(index);
+      }
+    });
+    this.requested = false;
+    this.requestUpdate();
+    if (items.length > 0) {
+      this.updateRange();
+    }
+  }
+
+  protected createRenderRoot() {
+    return this;
+  }
+
+  protected firstUpdated() {
+    this.updateRange();
+  }
+
+  protected updated(changedProperties: Map<string, unknown>) {
+    if (changedProperties.has('revision')) {
+      this.items.clear();
+      this.requested = false;
+    }
+    if (changedProperties.has('size') || changedProperties.has('orientation') || changedProperties.has('revision')) {
+      this.updateRange();
+    }
+    const button = this.querySelector('vaadin-button') as HTMLElement | null;
+    const itemSize = button ? (this.isVertical() ? button.offsetHeight : button.offsetWidth) : 0;
+    if (itemSize > 0 && itemSize !== this.itemSize) {
+      this.itemSize = itemSize;
+      this.updateRange();
+    }
+  }
+
+  protected render() {
+    const buttons = [];
+    for (let index = this.first; index < this.last; index++) {
+      const item = this.items.get(index);
+      const selected = item !== undefined && item.key === this.selectedKey;
+      const onClick = () => item && this.onItemClick(item);
+      buttons.push(renderButton(item, index, this.size, this.orientation, selected, onClick));
+    }
+    const dimension = this.isVertical() ? 'height' : 'width';
+    return html`
+      <div style="flex: none; ${dimension}: ${this.first * this.itemSize}px"></div>
+      ${buttons}
+      <div style="flex: none; ${dimension}: ${(this.size - this.last) * this.itemSize}px"></div>
+    `;
+  }
+
+  private isVertical() {
+    return this.orientation === 'v';
+  }
+
+  // maps the scroll position to the rendered index range and requests the items of it that aren't loaded
+  private updateRange() {
+    const offset = this.isVertical() ? this.scrollTop : this.scrollLeft;
+    const viewport = this.isVertical() ? this.clientHeight : this.clientWidth;
+    this.first = Math.max(0, Math.floor(offset / this.itemSize) - OVERSCAN);
+    this.last = Math.min(this.size, Math.ceil((offset + viewport) / this.itemSize) + OVERSCAN);
+    if (this.requested) {
+      return;
+    }
+    let start = this.first;
+    while (start < this.last && this.items.has(start)) {
+      start++;
+    }
+    let end = this.last;
+    while (end > start && this.items.has(end - 1)) {
+      end--;
+    }
+    if (start < end) {
+      this.requested = true;
+      this.dispatchEvent(new CustomEvent('range-requested', { detail: { start, end } }));
+    }
+  }
+
+  private onItemClick(item: ToggleButtonGroupVirtualItem) {
+    const value = this.toggleable && item.key === this.selectedKey ? null : item.key;
+    if (this.optimistic) {
+      this.selectedKey = value;
+    }
+    this.uncommitted = true;
+    this.dispatchEvent(new CustomEvent('selected-changed', { detail: { value } }));
+  }
+}
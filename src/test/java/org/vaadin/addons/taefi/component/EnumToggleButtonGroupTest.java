@@ -0,0 +1,71 @@
+package org.vaadin.addons.taefi.component;
+
+import com.vaadin.flow.component.button.Button;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+
+public class EnumToggleButtonGroupTest {
+
+    private enum Size {
+        SMALL, MEDIUM, LARGE, HUGE
+    }
+
+    @Test
+    public void allConstantsAreItems_selectionStylesTheSelectedButton() {
+        ServerSideUI ui = new ServerSideUI();
+        EnumToggleButtonGroup<Size> group = new EnumToggleButtonGroup<>("Size", Size.class);
+        group.setValue(Size.LARGE);
+        ui.add(group);
+        ui.flush();
+
+        List<Button> buttons = ServerSideUI.getButtons(group);
+        Assert.assertEquals(List.of("SMALL", "MEDIUM", "LARGE", "HUGE"), buttons.stream().map(Button::getText).toList());
+        Assert.assertEquals("primary", buttons.get(2).getThemeName());
+
+        ServerSideUI.click(buttons.get(0));
+        Assert.assertEquals(Size.SMALL, group.getValue());
+        Assert.assertEquals("primary", buttons.get(0).getThemeName());
+        Assert.assertNull(buttons.get(2).getThemeName());
+    }
+
+    @Test
+    public void setItems_aSubsetOfTheConstants() {
+        ServerSideUI ui = new ServerSideUI();
+        EnumToggleButtonGroup<Size> group = new EnumToggleButtonGroup<>("Size", Size.class);
+        group.setItems(EnumSet.of(Size.MEDIUM, Size.HUGE));
+        group.setValue(Size.HUGE);
+        ui.add(group);
+        ui.flush();
+
+        List<Button> buttons = ServerSideUI.getButtons(group);
+        Assert.assertEquals(List.of("MEDIUM", "HUGE"), buttons.stream().map(Button::getText).toList());
+        Assert.assertEquals("primary", buttons.get(1).getThemeName());
+        ServerSideUI.click(buttons.get(0));
+        Assert.assertEquals(Size.MEDIUM, group.getValue());
+    }
+
+    @Test
+    public void uniqueItemIds_andACustomItemIdGenerator() {
+        ServerSideUI ui = new ServerSideUI();
+        EnumToggleButtonGroup<Size> group = new EnumToggleButtonGroup<>("Size", Size.class);
+        group.setUniqueItemIds(true);
+        group.setValue(Size.MEDIUM);
+        ui.add(group);
+        ui.flush();
+        Assert.assertEquals("primary", ServerSideUI.getButtons(group).get(1).getThemeName());
+
+        group.setItemIdGenerator(Size::name);
+        group.setValue(Size.HUGE);
+        ui.flush();
+        List<Button> buttons = ServerSideUI.getButtons(group);
+        Assert.assertEquals("primary", buttons.get(3).getThemeName());
+        Assert.assertNull(buttons.get(1).getThemeName());
+        Assert.assertEquals("HUGE", group.getItemIdGenerator().apply(Size.HUGE));
+
+        group.setItemIdGenerator(null);
+        Assert.assertEquals(3, group.getItemIdGenerator().apply(Size.HUGE));
+    }
+}
@@ -0,0 +1,94 @@
+package org.vaadin.addons.taefi.component;
+
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.customfield.CustomField;
+import com.vaadin.flow.data.selection.MultiSelectionEvent;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+public class MultiToggleButtonGroupTest {
+
+    @Test
+    public void selectAllAndDeselectAll_fireOneEventEach() {
+        MultiToggleButtonGroup<String> group = new MultiToggleButtonGroup<>("Label", "A", "B", "C");
+        List<MultiSelectionEvent<CustomField<Set<String>>, String>> events = new ArrayList<>();
+        group.addSelectionListener(events::add);
+
+        group.selectAll();
+        Assert.assertEquals(1, events.size());
+        Assert.assertEquals(Set.of("A", "B", "C"), events.get(0).getAddedSelection());
+
+        group.deselectAll();
+        Assert.assertEquals(2, events.size());
+        Assert.assertEquals(Set.of("A", "B", "C"), events.get(1).getRemovedSelection());
+        Assert.assertTrue(group.getSelectedItems().isEmpty());
+    }
+
+    @Test
+    public void updateSelection_onlyTheFlippedButtonsChange() {
+        MultiToggleButtonGroup<String> group = new MultiToggleButtonGroup<>("Label", "A", "B", "C");
+        group.select("A", "B");
+        List<Button> buttons = ServerSideUI.getButtons(group);
+        Assert.assertEquals("primary", buttons.get(0).getThemeName());
+        Assert.assertEquals("primary", buttons.get(1).getThemeName());
+        Assert.assertNull(buttons.get(2).getThemeName());
+
+        group.updateSelection(Set.of("C"), Set.of("A"));
+        Assert.assertEquals(List.of("B", "C"), new ArrayList<>(group.getValue()));
+        Assert.assertNull(buttons.get(0).getThemeName());
+        Assert.assertEquals("primary", buttons.get(1).getThemeName());
+        Assert.assertEquals("primary", buttons.get(2).getThemeName());
+    }
+
+    @Test
+    public void clickingAButton_togglesItsItem() {
+        MultiToggleButtonGroup<String> group = new MultiToggleButtonGroup<>("Label", "A", "B", "C");
+        List<Button> buttons = ServerSideUI.getButtons(group);
+
+        ServerSideUI.click(buttons.get(1));
+        Assert.assertEquals(Set.of("B"), group.getValue());
+        ServerSideUI.click(buttons.get(1));
+        Assert.assertEquals(Set.of(), group.getValue());
+
+        group.setReadOnly(true);
+        ServerSideUI.click(buttons.get(0));
+        Assert.assertEquals(Set.of(), group.getValue());
+    }
+
+    @Test
+    public void forgedClickOnADisabledButton_isRejected() {
+        MultiToggleButtonGroup<String> group = new MultiToggleButtonGroup<>("Label", "A", "B", "C");
+        group.setItemEnabledProvider(item -> !item.equals("B"));
+        List<Button> buttons = ServerSideUI.getButtons(group);
+
+        ServerSideUI.click(buttons.get(1));
+        Assert.assertEquals(Set.of(), group.getValue());
+        ServerSideUI.click(buttons.get(2));
+        Assert.assertEquals(Set.of("C"), group.getValue());
+    }
+
+    @Test
+    public void setValue_dropsTheItemsThatAreNotPartOfTheGroup() {
+        MultiToggleButtonGroup<String> group = new MultiToggleButtonGroup<>("Label", "A", "B", "C");
+
+        group.setValue(Set.of("A", "Z"));
+        Assert.assertEquals(Set.of("A"), group.getValue());
+        Assert.assertEquals(Set.of("A"), group.getSelectedItems());
+        group.select("B");
+        Assert.assertEquals(Set.of("A", "B"), group.getValue());
+    }
+
+    @Test
+    public void setItems_keepsTheSelectedItemsThatAreStillThere() {
+        MultiToggleButtonGroup<String> group = new MultiToggleButtonGroup<>("Label", "A", "B", "C");
+        group.select("A", "C");
+
+        group.setItems("C", "D");
+        Assert.assertEquals(Set.of("C"), group.getValue());
+        Assert.assertEquals("primary", ServerSideUI.getButtons(group).get(0).getThemeName());
+    }
+}
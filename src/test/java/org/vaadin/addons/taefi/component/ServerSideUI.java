@@ -0,0 +1,144 @@
+package org.vaadin.addons.taefi.component;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.dom.DomEvent;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.function.DeploymentConfiguration;
+import com.vaadin.flow.internal.nodefeature.ElementListenerMap;
+import com.vaadin.flow.server.Command;
+import com.vaadin.flow.server.VaadinContext;
+import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.VaadinServletService;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.server.startup.ApplicationConfiguration;
+import elemental.json.Json;
+import elemental.json.JsonObject;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * A UI bound to an always locked session, for exercising components on the server side only (no servlet, no
+ * browser). {@link #flush()} does what writing a response to the client would do to the state tree.
+ */
+public class ServerSideUI extends UI {
+
+    public ServerSideUI() {
+        getInternals().setSession(new AlwaysLockedSession(new ServerSideService()));
+        UI.setCurrent(this);
+    }
+
+    public void flush() {
+        getInternals().getStateTree().runExecutionsBeforeClientResponse();
+        getInternals().getStateTree().collectChanges(change -> {
+        });
+    }
+
+    // the session is always locked, so there's nothing to wait for
+    @Override
+    public Future<Void> access(Command command) {
+        command.execute();
+        return CompletableFuture.completedFuture(null);
+    }
+
+    // the click a browser sends for a button of a group: to the layout, which has a single listener for all buttons
+    public static void click(Button button) {
+        Element layout = button.getElement().getParent();
+        JsonObject eventData = Json.createObject();
+        eventData.put(ToggleButtonGroup.CLICKED_BUTTON_INDEX, layout.indexOfChild(button.getElement()));
+        eventData.put(ToggleButtonGroup.BUTTON_CLICK_FILTER, true);
+        fireDomEvent(layout, "click", eventData);
+    }
+
+    // the buttons of a group, in the order of its layout
+    public static List<Button> getButtons(Component group) {
+        return group.getChildren()
+                .flatMap(layout -> layout.getChildren())
+                .filter(Button.class::isInstance)
+                .map(Button.class::cast)
+                .toList();
+    }
+
+    public static void fireDomEvent(Element element, String eventType, JsonObject eventData) {
+        element.getNode().getFeature(ElementListenerMap.class).fireEvent(new DomEvent(element, eventType, eventData));
+    }
+
+    // an implementation of the interface where the boolean methods return the given value and all others null
+    private static <T> T stub(Class<T> type, boolean booleanValue) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> method.getReturnType() == boolean.class ? booleanValue : null));
+    }
+
+    // attaching some components (e.g. the target of a ContextMenu) looks up their dependencies, which are cached per
+    // service, and serializing the session asks the application configuration whether that is allowed
+    private static class ServerSideService extends VaadinServletService {
+
+        @Override
+        public VaadinContext getContext() {
+            return new ServerSideContext();
+        }
+    }
+
+    private static class ServerSideContext implements VaadinContext {
+
+        @Override
+        public <T> T getAttribute(Class<T> type, Supplier<T> defaultValueSupplier) {
+            return type == ApplicationConfiguration.class ? stub(type, true) : null;
+        }
+
+        @Override
+        public <T> void setAttribute(Class<T> clazz, T value) {
+        }
+
+        @Override
+        public void removeAttribute(Class<?> clazz) {
+        }
+
+        @Override
+        public Enumeration<String> getContextParameterNames() {
+            return Collections.emptyEnumeration();
+        }
+
+        @Override
+        public String getContextParameter(String name) {
+            return null;
+        }
+    }
+
+    private static class AlwaysLockedSession extends VaadinSession {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        AlwaysLockedSession(VaadinService service) {
+            super(service);
+            lock.lock();
+        }
+
+        // a development mode configuration
+        @Override
+        public DeploymentConfiguration getConfiguration() {
+            return stub(DeploymentConfiguration.class, false);
+        }
+
+        @Override
+        public Lock getLockInstance() {
+            return lock;
+        }
+
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            lock.lock();
+        }
+    }
+}
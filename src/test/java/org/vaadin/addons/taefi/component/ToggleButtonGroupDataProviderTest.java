@@ -0,0 +1,100 @@
+package org.vaadin.addons.taefi.component;
+
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.data.provider.DataProvider;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ToggleButtonGroupDataProviderTest {
+
+    @Test
+    public void listDataView_changes_updateTheButtonsIncrementally() {
+        ServerSideUI ui = new ServerSideUI();
+        ToggleButtonGroup<String> group = new ToggleButtonGroup<>("Label", List.of("A", "B"));
+        ui.add(group);
+        ui.flush();
+        List<Button> buttons = ServerSideUI.getButtons(group);
+
+        group.getListDataView().addItem("C");
+        ui.flush();
+        List<Button> updatedButtons = ServerSideUI.getButtons(group);
+        Assert.assertEquals(List.of("A", "B", "C"), group.getItems());
+        Assert.assertSame(buttons.get(0), updatedButtons.get(0));
+        Assert.assertSame(buttons.get(1), updatedButtons.get(1));
+        Assert.assertEquals("C", updatedButtons.get(2).getText());
+
+        group.getListDataView().setFilter(item -> !item.equals("B"));
+        ui.flush();
+        Assert.assertEquals(List.of("A", "C"), ServerSideUI.getButtons(group).stream().map(Button::getText).toList());
+    }
+
+    @Test
+    public void setItems_keepsAPlainList_untilTheReturnedDataViewIsUsed() {
+        ServerSideUI ui = new ServerSideUI();
+        ToggleButtonGroup<String> group = new ToggleButtonGroup<>("Label");
+        ToggleButtonGroupListDataView<String> dataView = group.setItems("A", "B");
+        List<String> items = group.getItems();
+        ui.add(group);
+        ui.flush();
+        // a group with a data provider fetches its items again when it's attached again
+        ui.remove(group);
+        ui.add(group);
+        ui.flush();
+        Assert.assertSame(items, group.getItems());
+
+        dataView.addItem("C");
+        ui.flush();
+        Assert.assertEquals(List.of("A", "B", "C"), group.getItems());
+        Assert.assertEquals(3, ServerSideUI.getButtons(group).size());
+        Assert.assertEquals(3, group.getListDataView().getItemCount());
+    }
+
+    @Test
+    public void backendDataProvider_isQueriedWhenRendered() {
+        AtomicInteger queries = new AtomicInteger();
+        List<String> backend = new ArrayList<>(List.of("A", "B"));
+        DataProvider<String, Void> dataProvider = DataProvider.fromCallbacks(query -> {
+            queries.incrementAndGet();
+            return backend.stream().skip(query.getOffset()).limit(query.getLimit());
+        }, query -> backend.size());
+        ServerSideUI ui = new ServerSideUI();
+        ToggleButtonGroup<String> group = new ToggleButtonGroup<>("Label");
+        group.setItems(dataProvider);
+        Assert.assertEquals(0, queries.get());
+
+        ui.add(group);
+        ui.flush();
+        Assert.assertEquals(1, queries.get());
+        Assert.assertEquals(2, ServerSideUI.getButtons(group).size());
+
+        backend.add("C");
+        dataProvider.refreshAll();
+        ui.flush();
+        Assert.assertEquals(2, queries.get());
+        Assert.assertEquals(3, ServerSideUI.getButtons(group).size());
+    }
+
+    @Test
+    public void fetchExecutor_itemsAreAppliedWhenTheQueryCompletes() {
+        List<Runnable> queries = new ArrayList<>();
+        ServerSideUI ui = new ServerSideUI();
+        ToggleButtonGroup<String> group = new ToggleButtonGroup<>("Label");
+        group.setFetchExecutor(queries::add);
+        group.setItems(DataProvider.fromCallbacks(query -> List.of("A", "B").stream(), query -> 2));
+        group.setValue("B");
+        ui.add(group);
+        ui.flush();
+        Assert.assertEquals(1, queries.size());
+        Assert.assertTrue(ServerSideUI.getButtons(group).isEmpty());
+
+        queries.get(0).run();
+        ui.flush();
+        List<Button> buttons = ServerSideUI.getButtons(group);
+        Assert.assertEquals(2, buttons.size());
+        Assert.assertEquals("primary", buttons.get(1).getThemeName());
+    }
+}
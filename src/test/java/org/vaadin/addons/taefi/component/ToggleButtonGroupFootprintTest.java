@@ -0,0 +1,99 @@
+package org.vaadin.addons.taefi.component;
+
+import com.vaadin.flow.component.UI;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Guards the session footprint of the component: the retained heap (measured with JOL) and the size of the Java
+ * serialized form (as written when a session is replicated), both per instance and per item. Runs on the server
+ * side only, no browser is needed.
+ * <p>
+ * Only what a group adds to its UI is measured, so whatever is shared between instances (the UI and the session,
+ * framework singletons) is left out.
+ * <p>
+ * The thresholds only hold for the JVM and Vaadin version they were measured on, so this runs in the footprint
+ * profile only: {@code mvn test -Pfootprint}.
+ */
+public class ToggleButtonGroupFootprintTest {
+
+    static {
+        // JOL can't read the field offsets through Unsafe on recent JDKs without this:
+        System.setProperty("jol.magicFieldOffset", "true");
+    }
+
+    private static final int SMALL = 10;
+    private static final int LARGE = 100;
+
+    // baselines measured on JDK 17 / Vaadin 24.2 (4656, 3444, 5197 and 1301 bytes), with about 20% of headroom.
+    // The click listener of the layout moved cost from every item to the instance.
+    private static final long MAX_RETAINED_BYTES_PER_INSTANCE = 5_600;
+    private static final long MAX_RETAINED_BYTES_PER_ITEM = 4_150;
+    private static final long MAX_SERIALIZED_BYTES_PER_INSTANCE = 6_250;
+    private static final long MAX_SERIALIZED_BYTES_PER_ITEM = 1_570;
+
+    @Test
+    public void retainedHeap_staysWithinThresholds() {
+        long perInstance = retainedBytes(0);
+        long perItem = (retainedBytes(LARGE) - retainedBytes(SMALL)) / (LARGE - SMALL);
+
+        Assert.assertTrue("Retained heap per instance: " + perInstance, perInstance <= MAX_RETAINED_BYTES_PER_INSTANCE);
+        Assert.assertTrue("Retained heap per item: " + perItem, perItem <= MAX_RETAINED_BYTES_PER_ITEM);
+    }
+
+    @Test
+    public void serializedSize_staysWithinThresholds() {
+        long perInstance = serializedBytes(0);
+        long perItem = (serializedBytes(LARGE) - serializedBytes(SMALL)) / (LARGE - SMALL);
+
+        Assert.assertTrue("Serialized bytes per instance: " + perInstance, perInstance <= MAX_SERIALIZED_BYTES_PER_INSTANCE);
+        Assert.assertTrue("Serialized bytes per item: " + perItem, perItem <= MAX_SERIALIZED_BYTES_PER_ITEM);
+    }
+
+    // what a UI holding the group retains on top of an empty UI. Whatever is shared by every UI (threads, class
+    // loaders, framework singletons reachable from the session) is subtracted using a third, reference UI.
+    private long retainedBytes(int size) {
+        GraphLayout shared = GraphLayout.parseInstance(new ServerSideUI());
+        ServerSideUI empty = new ServerSideUI();
+        ServerSideUI ui = withGroup(size);
+        return GraphLayout.parseInstance(ui).subtract(shared).totalSize()
+                - GraphLayout.parseInstance(empty).subtract(shared).totalSize();
+    }
+
+    private long serializedBytes(int size) {
+        return serializedBytes(withGroup(size)) - serializedBytes(new ServerSideUI());
+    }
+
+    // a UI holding one rendered group, as it is kept in the session
+    private ServerSideUI withGroup(int size) {
+        List<String> items = IntStream.range(0, size).mapToObj(i -> "item-" + i).toList();
+        ServerSideUI ui = new ServerSideUI();
+        ToggleButtonGroup<String> group = new ToggleButtonGroup<>("Label", items);
+        group.setItemTooltipTextGenerator(item -> "Tooltip of " + item);
+        if (size > 0) {
+            group.setValue(items.get(0));
+        }
+        ui.add(group);
+        ui.flush();
+        UI.setCurrent(null);
+        return ui;
+    }
+
+    private static long serializedBytes(UI ui) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(ui);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.size();
+    }
+}
@@ -225,6 +225,20 @@ public class ToggleButtonGroupIT extends AbstractViewTest {
         Assert.assertFalse(isButtonEnabled(buttons.get(4)));
     }
 
+    @Test
+    public void group_itemsAreReset_existingButtonsAreReusedAndUpdated() {
+        CustomFieldElement group70 = $(CustomFieldElement.class).id("group70");
+        group70.scrollIntoView();
+        List<WebElement> buttons = getGroupButtons("group70");
+        Assert.assertEquals("Jelly (100)", buttons.get(0).getText());
+
+        buttons.get(0).click(); // the ValueChangeListener calls setItems with the updated counts
+        // the same DOM nodes are still attached (no StaleElementReferenceException) and show the new label:
+        Assert.assertEquals("Jelly (99)", buttons.get(0).getText());
+        Assert.assertEquals("primary", buttons.get(0).getAttribute("theme"));
+        Assert.assertEquals(buttons.size(), getGroupButtons("group70").size());
+    }
+
     @Test
     public void group_withCustomStyleForSelectedItem_rendersTheSelectedClassAccordingToCustomClassAndNotAsPrimary() {
         List<WebElement> buttons = getGroupButtons("group80");
@@ -305,6 +319,23 @@ public class ToggleButtonGroupIT extends AbstractViewTest {
                         .orElse(""));
     }
 
+    @Test
+    public void group_withWebComponentRenderMode_publishesSelectionAndToggles() {
+        NativeLabelElement selectedValueLabel = $(NativeLabelElement.class).id("group130-selected-value");
+        CustomFieldElement group130 = $(CustomFieldElement.class).id("group130");
+        group130.scrollIntoView();
+
+        List<WebElement> buttons = getGroupButtons("group130");
+        Assert.assertEquals(4, buttons.size());
+
+        buttons.get(1).click();
+        Assert.assertEquals("PIZZA", selectedValueLabel.getText());
+        Assert.assertEquals("primary", getGroupButtons("group130").get(1).getAttribute("theme"));
+
+        getGroupButtons("group130").get(1).click(); // toggleable by default, so re-clicking clears the selection
+        Assert.assertEquals("", selectedValueLabel.getText());
+    }
+
     private List<WebElement> getGroupButtons(String groupId) {
         CustomFieldElement group = $(CustomFieldElement.class).id(groupId);
         return group.getWrappedElement().findElements(By.tagName("vaadin-button"));
@@ -0,0 +1,106 @@
+package org.vaadin.addons.taefi.component;
+
+import com.vaadin.flow.component.button.Button;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class ToggleButtonGroupItemIdTest {
+
+    @Test
+    public void itemsWithTheSameHashCode_selectionStylesTheSelectedButtonOnly() {
+        // "Aa" and "BB" have the same hashCode
+        ServerSideUI ui = new ServerSideUI();
+        ToggleButtonGroup<String> group = new ToggleButtonGroup<>("Label", List.of("Aa", "BB"));
+        group.setValue("BB");
+        ui.add(group);
+        ui.flush();
+
+        List<Button> buttons = ServerSideUI.getButtons(group);
+        Assert.assertEquals(2, buttons.size());
+        Assert.assertNull(buttons.get(0).getThemeName());
+        Assert.assertEquals("primary", buttons.get(1).getThemeName());
+    }
+
+    @Test
+    public void itemIdGenerator_isNotAppliedToAnEmptyValue() {
+        ServerSideUI ui = new ServerSideUI();
+        ToggleButtonGroup<String> group = new ToggleButtonGroup<>("Label", List.of("A", "B"));
+        group.setItemIdGenerator(String::toLowerCase);
+        ui.add(group);
+        ui.flush();
+
+        group.setValue("B");
+        group.setValue(null);
+        Assert.assertNull(ServerSideUI.getButtons(group).get(1).getThemeName());
+    }
+
+    @Test
+    public void uniqueItemIds_duplicateIds_areRejectedBySetItems() {
+        ToggleButtonGroup<String> group = new ToggleButtonGroup<>("Label", List.of("A", "B"));
+        group.setUniqueItemIds(true);
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> group.setItems("A", "B", "A"));
+        Assert.assertEquals(List.of("A", "B"), group.getItems());
+        Assert.assertThrows(IllegalArgumentException.class, () -> group.setItemIdGenerator(String::length));
+    }
+
+    @Test
+    public void uniqueItemIds_buttonsAreLookedUpById() {
+        ServerSideUI ui = new ServerSideUI();
+        ToggleButtonGroup<String> group = new ToggleButtonGroup<>("Label", List.of("A", "B", "C"));
+        group.setUniqueItemIds(true);
+        group.setValue("C");
+        ui.add(group);
+        ui.flush();
+
+        List<Button> buttons = ServerSideUI.getButtons(group);
+        Assert.assertEquals("primary", buttons.get(2).getThemeName());
+        group.setValue("A");
+        Assert.assertEquals("primary", buttons.get(0).getThemeName());
+        Assert.assertNull(buttons.get(2).getThemeName());
+    }
+
+    @Test
+    public void uniqueItemIds_distinctIdsWithTheSameHashCode_areAccepted() {
+        ServerSideUI ui = new ServerSideUI();
+        ToggleButtonGroup<String> group = new ToggleButtonGroup<>("Label", List.of("Aa", "BB", "C"));
+        group.setUniqueItemIds(true);
+        group.setValue("BB");
+        ui.add(group);
+        ui.flush();
+
+        List<Button> buttons = ServerSideUI.getButtons(group);
+        Assert.assertNull(buttons.get(0).getThemeName());
+        Assert.assertEquals("primary", buttons.get(1).getThemeName());
+        Assert.assertThrows(IllegalArgumentException.class, () -> group.setItems("Aa", "BB", "Aa"));
+    }
+
+    @Test
+    public void uniqueItemIds_hashCodesThatDifferInTheHighBitsOnly_areLookedUp() {
+        // the hash codes of 0L and Long.MIN_VALUE differ in the sign bit only
+        Object[] ids = {0L, Long.MIN_VALUE, 1L << 48, -1L << 48};
+        ItemIdIndex index = ItemIdIndex.ofUniqueIds(ids);
+        for (int i = 0; i < ids.length; i++) {
+            Assert.assertEquals(i, index.indexOf(ids[i]));
+        }
+        Assert.assertEquals(-1, index.indexOf(1L));
+
+        ServerSideUI ui = new ServerSideUI();
+        ToggleButtonGroup<Long> group = new ToggleButtonGroup<>("Label", List.of(0L, Long.MIN_VALUE));
+        group.setUniqueItemIds(true);
+        group.setValue(Long.MIN_VALUE);
+        ui.add(group);
+        ui.flush();
+        Assert.assertNull(ServerSideUI.getButtons(group).get(0).getThemeName());
+        Assert.assertEquals("primary", ServerSideUI.getButtons(group).get(1).getThemeName());
+    }
+
+    @Test
+    public void itemIdGenerator_isTheIdentityByDefault() {
+        ToggleButtonGroup<String> group = new ToggleButtonGroup<>("Label", List.of("A", "B"));
+        Assert.assertEquals("B", group.getItemIdGenerator().apply("B"));
+        Assert.assertEquals("B", new MultiToggleButtonGroup<>("Label", "A", "B").getItemIdGenerator().apply("B"));
+    }
+}
@@ -0,0 +1,72 @@
+package org.vaadin.addons.taefi.component;
+
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.contextmenu.ContextMenu;
+import com.vaadin.flow.component.contextmenu.MenuItem;
+import elemental.json.Json;
+import elemental.json.JsonObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+public class ToggleButtonGroupOverflowTest {
+
+    private final List<String> items = IntStream.range(0, 10).mapToObj(i -> "item-" + i).toList();
+
+    @Test
+    public void maxVisibleItems_selectedItemIsPromotedToTheButtons() {
+        ServerSideUI ui = new ServerSideUI();
+        ToggleButtonGroup<String> group = new ToggleButtonGroup<>("Label", items);
+        group.setMaxVisibleItems(4);
+        ui.add(group);
+        ui.flush();
+        Assert.assertEquals(List.of("item-0", "item-1", "item-2", "item-3", ""), getButtonTexts(group));
+
+        group.setValue("item-7");
+        ui.flush();
+        List<Button> buttons = ServerSideUI.getButtons(group);
+        Assert.assertEquals(List.of("item-0", "item-1", "item-2", "item-7", ""), getButtonTexts(group));
+        Assert.assertEquals("primary", buttons.get(3).getThemeName());
+
+        ServerSideUI.click(buttons.get(1));
+        Assert.assertEquals("item-1", group.getValue());
+        // clicking the more button doesn't select anything
+        ServerSideUI.click(buttons.get(4));
+        Assert.assertEquals("item-1", group.getValue());
+    }
+
+    @Test
+    public void overflowMenu_isPopulatedWhenOpened() {
+        ServerSideUI ui = new ServerSideUI();
+        ToggleButtonGroup<String> group = new ToggleButtonGroup<>("Label", items);
+        group.setMaxVisibleItems(4);
+        ui.add(group);
+        ui.flush();
+        Button moreButton = ServerSideUI.getButtons(group).get(4);
+        Assert.assertTrue(ui.getChildren().noneMatch(ContextMenu.class::isInstance));
+
+        JsonObject eventData = Json.createObject();
+        eventData.put("event.detail", Json.createObject());
+        ServerSideUI.fireDomEvent(moreButton.getElement(), "vaadin-context-menu-before-open", eventData);
+        ui.flush();
+        ContextMenu menu = ui.getChildren()
+                .filter(ContextMenu.class::isInstance)
+                .map(ContextMenu.class::cast)
+                .findFirst()
+                .orElseThrow();
+        List<MenuItem> menuItems = menu.getItems();
+        Assert.assertEquals(6, menuItems.size());
+        Assert.assertEquals("item-4", menuItems.get(0).getText());
+
+        ServerSideUI.fireDomEvent(menuItems.get(2).getElement(), "click", Json.createObject());
+        Assert.assertEquals("item-6", group.getValue());
+        ui.flush();
+        Assert.assertEquals(List.of("item-0", "item-1", "item-2", "item-6", ""), getButtonTexts(group));
+    }
+
+    private List<String> getButtonTexts(ToggleButtonGroup<?> group) {
+        return ServerSideUI.getButtons(group).stream().map(Button::getText).toList();
+    }
+}
@@ -0,0 +1,52 @@
+package org.vaadin.addons.taefi.component;
+
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.data.renderer.LitRenderer;
+import com.vaadin.flow.dom.Element;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+public class ToggleButtonGroupRendererTest {
+
+    @Test
+    public void rows_haveNoServerSideComponents() {
+        ServerSideUI ui = new ServerSideUI();
+        Map<Integer, String> answers = new HashMap<>();
+        Grid<Integer> grid = new Grid<>();
+        grid.addColumn(new ToggleButtonGroupRenderer<>(List.of("Yes", "No"), answers::get, answers::put));
+        grid.setItems(IntStream.range(0, 5000).boxed().toList());
+        ui.add(grid);
+        ui.flush();
+
+        Assert.assertEquals(1, grid.getElement().getChildCount());
+        Assert.assertEquals(0, grid.getColumns().get(0).getElement().getChildCount());
+    }
+
+    @Test
+    public void selection_isReadFromTheRowAndPassedToTheCallback() {
+        Map<Integer, String> answers = new HashMap<>();
+        answers.put(1, "No");
+        ToggleButtonGroupRenderer<Integer, String> renderer =
+                new ToggleButtonGroupRenderer<>(List.of("Yes", "No", "Maybe"), answers::get, answers::put);
+        renderer.setItemEnabledProvider(item -> !item.equals("Maybe"));
+        Element container = new Element("vaadin-grid-column");
+        LitRenderer<Integer> litRenderer = renderer.createLitRenderer(container);
+        Assert.assertEquals(1, litRenderer.getValueProviders().get("selected").apply(1));
+        Assert.assertEquals(-1, litRenderer.getValueProviders().get("selected").apply(2));
+
+        renderer.buttonClicked(container, 2, 0);
+        Assert.assertEquals("Yes", answers.get(2));
+        // a click on the selected button removes the selection, unless the group isn't toggleable
+        renderer.buttonClicked(container, 1, 1);
+        Assert.assertNull(answers.get(1));
+        renderer.setToggleable(false);
+        renderer.buttonClicked(container, 2, 0);
+        Assert.assertEquals("Yes", answers.get(2));
+        // disabled items can't be selected
+        renderer.buttonClicked(container, 2, 2);
+        Assert.assertEquals("Yes", answers.get(2));
+    }
+}
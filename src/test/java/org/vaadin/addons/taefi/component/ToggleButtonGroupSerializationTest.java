@@ -0,0 +1,85 @@
+package org.vaadin.addons.taefi.component;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.data.value.ValueChangeMode;
+import com.vaadin.flow.dom.Element;
+import elemental.json.Json;
+import elemental.json.JsonObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.List;
+
+public class ToggleButtonGroupSerializationTest {
+
+    @Test
+    public void deserializedGroup_keepsItemsAndSelection_buttonsStillWork() throws Exception {
+        ServerSideUI ui = new ServerSideUI();
+        ToggleButtonGroup<String> group = new ToggleButtonGroup<>("Label", List.of("A", "B", "C"));
+        group.setValue("B");
+        ui.add(group);
+        ui.flush();
+
+        ServerSideUI deserializedUi = serializeAndDeserialize(ui);
+        @SuppressWarnings("unchecked")
+        ToggleButtonGroup<String> deserialized = (ToggleButtonGroup<String>) deserializedUi.getChildren()
+                .findFirst().orElseThrow();
+        Assert.assertEquals(List.of("A", "B", "C"), deserialized.getItems());
+        Assert.assertEquals("B", deserialized.getValue());
+
+        List<Button> buttons = ServerSideUI.getButtons(deserialized);
+        Assert.assertEquals(3, buttons.size());
+        Assert.assertEquals("primary", buttons.get(1).getThemeName());
+
+        ServerSideUI.click(buttons.get(2));
+        Assert.assertEquals("C", deserialized.getValue());
+        Assert.assertNull(buttons.get(1).getThemeName());
+        Assert.assertEquals("primary", buttons.get(2).getThemeName());
+    }
+
+    @Test
+    public void deserializedGroup_clientSelectionsSelectTheRenderedItems() throws Exception {
+        ServerSideUI ui = new ServerSideUI();
+        ToggleButtonGroup<String> group = new ToggleButtonGroup<>("Label", List.of("A", "B", "C"));
+        group.setRenderMode(ToggleButtonGroup.RenderMode.WEB_COMPONENT);
+        group.setValue("A");
+        ToggleButtonGroup<String> coalescing = new ToggleButtonGroup<>("Coalescing", List.of("A", "B", "C"));
+        coalescing.setValueChangeMode(ValueChangeMode.ON_BLUR);
+        ui.add(group, coalescing);
+        ui.flush();
+
+        ServerSideUI deserializedUi = serializeAndDeserialize(ui);
+        @SuppressWarnings("unchecked")
+        List<ToggleButtonGroup<String>> groups = deserializedUi.getChildren()
+                .map(component -> (ToggleButtonGroup<String>) component)
+                .toList();
+        Element itemsElement = groups.get(0).getElement().getChildren()
+                .filter(child -> child.getTag().equals("toggle-button-group-items"))
+                .findFirst()
+                .orElseThrow();
+        JsonObject eventData = Json.createObject();
+        eventData.put("event.detail.value", 1);
+        ServerSideUI.fireDomEvent(itemsElement, "selected-changed", eventData);
+        Assert.assertEquals("B", groups.get(0).getValue());
+
+        Element layout = ServerSideUI.getButtons(groups.get(1)).get(0).getElement().getParent();
+        eventData = Json.createObject();
+        eventData.put("event.detail.index", 1);
+        ServerSideUI.fireDomEvent(layout, "toggle-button-group-commit", eventData);
+        Assert.assertEquals("B", groups.get(1).getValue());
+        Assert.assertEquals(1, layout.getProperty("selectedIndex", -1));
+    }
+
+
+    private ServerSideUI serializeAndDeserialize(UI ui) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(ui);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (ServerSideUI) in.readObject();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.vaadin.addons.taefi.component;
+
+import com.vaadin.flow.component.button.Button;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ToggleButtonGroupTemplateTest {
+
+    @Test
+    public void groupsCreatedFromATemplate_shareTheGeneratorResults_butNotTheSelection() {
+        AtomicInteger labelsGenerated = new AtomicInteger();
+        ToggleButtonGroup<String> prototype = new ToggleButtonGroup<>(List.of("C", "A", "B"));
+        prototype.setItemLabelGenerator(item -> {
+            labelsGenerated.incrementAndGet();
+            return "Item " + item;
+        });
+        prototype.setItemOrderProvider(item -> (int) item.charAt(0));
+        prototype.setItemEnabledProvider(item -> !item.equals("B"));
+        ToggleButtonGroupTemplate<String> template = ToggleButtonGroupTemplate.of(prototype);
+        Assert.assertEquals(3, labelsGenerated.get());
+
+        ServerSideUI ui = new ServerSideUI();
+        ToggleButtonGroup<String> first = new ToggleButtonGroup<>("First", template);
+        ToggleButtonGroup<String> second = new ToggleButtonGroup<>("Second", template);
+        ui.add(first, second);
+        first.setValue("C");
+        second.setReadOnly(true);
+        ui.flush();
+        Assert.assertEquals(3, labelsGenerated.get());
+
+        List<Button> firstButtons = ServerSideUI.getButtons(first);
+        List<Button> secondButtons = ServerSideUI.getButtons(second);
+        Assert.assertEquals(List.of("Item A", "Item B", "Item C"), firstButtons.stream().map(Button::getText).toList());
+        Assert.assertFalse(firstButtons.get(1).isEnabled());
+        Assert.assertEquals("primary", firstButtons.get(2).getThemeName());
+        Assert.assertNull(secondButtons.get(2).getThemeName());
+
+        ServerSideUI.click(firstButtons.get(0));
+        ServerSideUI.click(secondButtons.get(0));
+        Assert.assertEquals("A", first.getValue());
+        Assert.assertNull(second.getValue());
+        Assert.assertEquals(List.of("C", "A", "B"), first.getTemplate().getItems());
+    }
+
+    @Test
+    public void groupWithItsOwnConfiguration_stopsUsingTheTemplate() {
+        ToggleButtonGroup<String> prototype = new ToggleButtonGroup<>(List.of("A", "B"));
+        ToggleButtonGroupTemplate<String> template = ToggleButtonGroupTemplate.of(prototype);
+
+        ServerSideUI ui = new ServerSideUI();
+        ToggleButtonGroup<String> group = new ToggleButtonGroup<>(template);
+        ToggleButtonGroup<String> other = new ToggleButtonGroup<>(template);
+        ui.add(group, other);
+        ui.flush();
+        Assert.assertThrows(UnsupportedOperationException.class, () -> group.getItems().add("C"));
+        group.setItemLabelGenerator(String::toLowerCase);
+        group.refreshItem("B");
+        ui.flush();
+
+        Assert.assertNull(group.getTemplate());
+        Assert.assertEquals(List.of("a", "b"), ServerSideUI.getButtons(group).stream().map(Button::getText).toList());
+        Assert.assertEquals(List.of("A", "B"), ServerSideUI.getButtons(other).stream().map(Button::getText).toList());
+        Assert.assertSame(template, other.getTemplate());
+    }
+
+    @Test
+    public void refreshedItem_isSelectedInsteadOfTheTemplatesInstance() {
+        ToggleButtonGroup<Item> prototype = new ToggleButtonGroup<>(List.of(new Item(1, "A"), new Item(2, "B")));
+        prototype.setItemIdGenerator(Item::id);
+        prototype.setItemLabelGenerator(Item::label);
+        ToggleButtonGroupTemplate<Item> template = ToggleButtonGroupTemplate.of(prototype);
+
+        ServerSideUI ui = new ServerSideUI();
+        ToggleButtonGroup<Item> group = new ToggleButtonGroup<>(template);
+        ui.add(group);
+        ui.flush();
+        Item newB = new Item(2, "New B");
+        group.refreshItem(newB);
+        ServerSideUI.click(ServerSideUI.getButtons(group).get(1));
+
+        Assert.assertSame(newB, group.getValue());
+        Assert.assertEquals("New B", ServerSideUI.getButtons(group).get(1).getText());
+    }
+
+    private record Item(int id, String label) implements Serializable {
+    }
+}
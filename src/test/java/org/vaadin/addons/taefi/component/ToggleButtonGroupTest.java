@@ -0,0 +1,292 @@
+package org.vaadin.addons.taefi.component;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.icon.VaadinIcon;
+import com.vaadin.flow.component.internal.PendingJavaScriptInvocation;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.data.value.ValueChangeMode;
+import com.vaadin.flow.dom.DebouncePhase;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.StateNode;
+import com.vaadin.flow.internal.change.ListAddChange;
+import com.vaadin.flow.internal.change.ListRemoveChange;
+import com.vaadin.flow.internal.change.NodeChange;
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+public class ToggleButtonGroupTest {
+
+    @Test
+    public void forgedClickOnADisabledButton_isRejectedAndRolledBack() {
+        ServerSideUI ui = new ServerSideUI();
+        ToggleButtonGroup<String> group = new ToggleButtonGroup<>("Label", List.of("A", "B", "C"));
+        group.setItemEnabledProvider(item -> !item.equals("B"));
+        group.setOptimisticSelection(true);
+        group.setValue("A");
+        ui.add(group);
+        ui.flush();
+        ui.getInternals().dumpPendingJavaScriptInvocations();
+        List<Button> buttons = ServerSideUI.getButtons(group);
+
+        ServerSideUI.click(buttons.get(1));
+        Assert.assertEquals("A", group.getValue());
+        ui.flush();
+        List<PendingJavaScriptInvocation> invocations = ui.getInternals().dumpPendingJavaScriptInvocations();
+        Assert.assertTrue(invocations.stream().anyMatch(invocation ->
+                invocation.getInvocation().getExpression().contains("toggleButtonGroupConnector.select")));
+
+        group.setEnabled(false);
+        ServerSideUI.click(buttons.get(2));
+        Assert.assertEquals("A", group.getValue());
+    }
+
+    @Test
+    public void reEnablingTheGroup_keepsTheDisabledItemsDisabled() {
+        ServerSideUI ui = new ServerSideUI();
+        ToggleButtonGroup<String> group = new ToggleButtonGroup<>("Label", List.of("A", "B", "C"));
+        group.setItemEnabledProvider(item -> !item.equals("B"));
+        ui.add(group);
+        ui.flush();
+        List<Button> buttons = ServerSideUI.getButtons(group);
+
+        group.setEnabled(false);
+        Assert.assertTrue(buttons.stream().noneMatch(Button::isEnabled));
+        group.setEnabled(true);
+        Assert.assertTrue(buttons.get(0).isEnabled());
+        Assert.assertFalse(buttons.get(1).isEnabled());
+        Assert.assertTrue(buttons.get(2).isEnabled());
+
+        ServerSideUI.click(buttons.get(2));
+        Assert.assertEquals("C", group.getValue());
+    }
+
+    @Test
+    public void icons_areCachedByName_andEveryButtonGetsItsOwn() {
+        ServerSideUI ui = new ServerSideUI();
+        Map<String, VaadinIcon> icons = new HashMap<>(Map.of("A", VaadinIcon.CHECK, "B", VaadinIcon.CLOSE));
+        ToggleButtonGroup<String> group = new ToggleButtonGroup<>("Label", List.of("A", "B"));
+        group.setItemIconGenerator(item -> icons.get(item).create());
+        ui.add(group);
+        ui.flush();
+        List<Button> buttons = ServerSideUI.getButtons(group);
+        Assert.assertEquals("vaadin:check", buttons.get(0).getIcon().getElement().getAttribute("icon"));
+        Component iconOfB = buttons.get(1).getIcon();
+
+        group.refreshItem("B");
+        Assert.assertSame(iconOfB, buttons.get(1).getIcon());
+        icons.put("B", VaadinIcon.PLUS);
+        group.refreshItem("B");
+        Assert.assertEquals("vaadin:plus", buttons.get(1).getIcon().getElement().getAttribute("icon"));
+
+        group.setRenderMode(ToggleButtonGroup.RenderMode.WEB_COMPONENT);
+        ui.flush();
+        Element itemsElement = group.getElement().getChildren()
+                .filter(child -> child.getTag().equals("toggle-button-group-items"))
+                .findFirst()
+                .orElseThrow();
+        JsonArray items = (JsonArray) itemsElement.getPropertyRaw("items");
+        Assert.assertEquals("vaadin:plus", items.getObject(1).getString("icon"));
+    }
+
+    @Test
+    public void removingTheFirstItem_onlyDetachesItsButton() {
+        ServerSideUI ui = new ServerSideUI();
+        List<Integer> items = IntStream.range(0, 100).boxed().toList();
+        ToggleButtonGroup<Integer> group = new ToggleButtonGroup<>("Label", items);
+        ui.add(group);
+        ui.flush();
+        List<Button> buttons = ServerSideUI.getButtons(group);
+        StateNode layoutNode = buttons.get(0).getElement().getParent().getNode();
+
+        group.setItems(items.subList(1, items.size()));
+        List<NodeChange> changes = new ArrayList<>();
+        ui.getInternals().getStateTree().runExecutionsBeforeClientResponse();
+        ui.getInternals().getStateTree().collectChanges(change -> {
+            if (change.getNode() == layoutNode) {
+                changes.add(change);
+            }
+        });
+
+        Assert.assertEquals(buttons.subList(1, buttons.size()), ServerSideUI.getButtons(group));
+        Assert.assertEquals(0, changes.stream().filter(ListAddChange.class::isInstance).count());
+        Assert.assertEquals(1, changes.stream().filter(ListRemoveChange.class::isInstance).count());
+    }
+
+    @Test
+    public void refreshingTheSelectedItem_reappliesItsSelectedClass() {
+        ServerSideUI ui = new ServerSideUI();
+        Map<String, String> selectedClassNames = new HashMap<>(Map.of("A", "a-selected", "B", "b-selected"));
+        ToggleButtonGroup<String> group = new ToggleButtonGroup<>("Label", List.of("A", "B"));
+        group.setSelectedItemClassNameGenerator(selectedClassNames::get);
+        group.setOptimisticSelection(true);
+        group.setValue("B");
+        ui.add(group);
+        ui.flush();
+        Button button = ServerSideUI.getButtons(group).get(1);
+        Assert.assertTrue(button.hasClassName("b-selected"));
+
+        selectedClassNames.put("B", "b-refreshed");
+        group.refreshItem("B");
+        Assert.assertFalse(button.hasClassName("b-selected"));
+        Assert.assertTrue(button.hasClassName("b-refreshed"));
+        Assert.assertEquals("b-refreshed", button.getElement().getAttribute("selected-class"));
+
+        group.setValue("A");
+        Assert.assertFalse(button.hasClassName("b-refreshed"));
+    }
+
+    @Test
+    public void getItems_isSortedRightAfterSettingTheItemOrderProvider() {
+        ToggleButtonGroup<String> group = new ToggleButtonGroup<>("Label", List.of("A", "B"));
+        group.setItemOrderProvider(item -> -item.charAt(0));
+        Assert.assertEquals(List.of("B", "A"), group.getItems());
+    }
+
+    @Test
+    public void severalChangesInOneRoundTrip_rebuildTheButtonsOnce() {
+        ServerSideUI ui = new ServerSideUI();
+        List<String> createdButtons = new ArrayList<>();
+        ToggleButtonGroup<String> group = new ToggleButtonGroup<>("Label", List.of("A", "B")) {
+            @Override
+            protected Button createButton(String item) {
+                createdButtons.add(item);
+                return super.createButton(item);
+            }
+        };
+        ui.add(group);
+        ui.flush();
+        Assert.assertEquals(List.of("A", "B"), createdButtons);
+
+        createdButtons.clear();
+        group.setItems(List.of("C", "D"));
+        group.setItems(List.of("E", "F"));
+        group.setItemLabelGenerator(String::toLowerCase);
+        group.setOrientation(ToggleButtonGroup.Orientation.VERTICAL);
+        group.setMaxVisibleItems(5);
+        Assert.assertTrue(createdButtons.isEmpty());
+        ui.flush();
+
+        Assert.assertEquals(List.of("E", "F"), createdButtons);
+        Assert.assertEquals(List.of("e", "f"), ServerSideUI.getButtons(group).stream().map(Button::getText).toList());
+    }
+
+    @Test
+    public void releaseOnDetach_dropsTheButtons_andReattachingRebuildsThem() {
+        ServerSideUI ui = new ServerSideUI();
+        ToggleButtonGroup<String> group = new ToggleButtonGroup<>("Label", List.of("A", "B", "C"));
+        group.setReleaseOnDetach(true);
+        group.setValue("B");
+        Assert.assertTrue(ServerSideUI.getButtons(group).isEmpty());
+
+        ui.add(group);
+        ui.flush();
+        Assert.assertEquals(3, ServerSideUI.getButtons(group).size());
+
+        ui.remove(group);
+        Assert.assertTrue(ServerSideUI.getButtons(group).isEmpty());
+
+        ui.add(group);
+        ui.flush();
+        List<Button> buttons = ServerSideUI.getButtons(group);
+        Assert.assertEquals(3, buttons.size());
+        Assert.assertTrue(buttons.get(1).hasThemeName(ButtonVariant.LUMO_PRIMARY.getVariantName()));
+        ServerSideUI.click(buttons.get(2));
+        Assert.assertEquals("C", group.getValue());
+        Assert.assertFalse(buttons.get(1).hasThemeName(ButtonVariant.LUMO_PRIMARY.getVariantName()));
+        Assert.assertTrue(buttons.get(2).hasThemeName(ButtonVariant.LUMO_PRIMARY.getVariantName()));
+    }
+
+    @Test
+    public void switchingTheOrientation_keepsTheButtons() {
+        ServerSideUI ui = new ServerSideUI();
+        ToggleButtonGroup<String> group = new ToggleButtonGroup<>("Label", List.of("A", "B", "C"));
+        group.setValue("A");
+        ui.add(group);
+        ui.flush();
+        List<Button> buttons = ServerSideUI.getButtons(group);
+
+        group.setOrientation(ToggleButtonGroup.Orientation.VERTICAL);
+        ui.flush();
+        List<Button> verticalButtons = ServerSideUI.getButtons(group);
+        Assert.assertTrue(verticalButtons.get(0).getParent().orElseThrow() instanceof VerticalLayout);
+        Assert.assertEquals(buttons.size(), verticalButtons.size());
+        for (int i = 0; i < buttons.size(); i++) {
+            Assert.assertSame(buttons.get(i), verticalButtons.get(i));
+        }
+        Assert.assertTrue(verticalButtons.get(0).hasThemeName(ButtonVariant.LUMO_PRIMARY.getVariantName()));
+
+        ServerSideUI.click(verticalButtons.get(1));
+        Assert.assertEquals("B", group.getValue());
+    }
+
+    @Test
+    public void itemOrderProvider_sortsStably_andUnsortedItemsAreKeptAsTheyAre() {
+        List<String> items = List.of("b1", "a1", "c", "b2", "a2");
+        Assert.assertSame(items, ToggleButtonGroup.sortItems(items, null));
+        Assert.assertSame(items, ToggleButtonGroup.sortItems(items, item -> 0));
+        Assert.assertEquals(List.of("a1", "a2", "b1", "b2", "c"),
+                ToggleButtonGroup.sortItems(items, item -> (int) item.charAt(0)));
+        Assert.assertEquals(List.of("c", "b1", "b2", "a1", "a2"),
+                ToggleButtonGroup.sortItems(items, item -> -item.charAt(0)));
+
+        ServerSideUI ui = new ServerSideUI();
+        ToggleButtonGroup<String> group = new ToggleButtonGroup<>("Label", items);
+        ui.add(group);
+        ui.flush();
+        Assert.assertEquals(items, group.getItems());
+        Assert.assertEquals(items, ServerSideUI.getButtons(group).stream().map(Button::getText).toList());
+
+        group.setItemOrderProvider(item -> (int) item.charAt(0));
+        ui.flush();
+        Assert.assertEquals(List.of("a1", "a2", "b1", "b2", "c"),
+                ServerSideUI.getButtons(group).stream().map(Button::getText).toList());
+    }
+
+    @Test
+    public void coalescingValueChangeModes_changeTheValueOncePerClientEvent() {
+        assertOneValueChangePerClientEvent(ValueChangeMode.LAZY, "toggle-button-group-change", DebouncePhase.TRAILING);
+        assertOneValueChangePerClientEvent(ValueChangeMode.TIMEOUT, "toggle-button-group-change",
+                DebouncePhase.INTERMEDIATE);
+        assertOneValueChangePerClientEvent(ValueChangeMode.ON_BLUR, "toggle-button-group-commit",
+                DebouncePhase.LEADING);
+    }
+
+    // the phase is the one of the debounced (LAZY) or throttled (TIMEOUT) event that the browser sends
+    private static void assertOneValueChangePerClientEvent(ValueChangeMode valueChangeMode, String eventType,
+                                                           DebouncePhase phase) {
+        ServerSideUI ui = new ServerSideUI();
+        ToggleButtonGroup<String> group = new ToggleButtonGroup<>("Label", List.of("A", "B", "C"));
+        group.setValueChangeMode(valueChangeMode);
+        ui.add(group);
+        ui.flush();
+        List<String> values = new ArrayList<>();
+        group.addValueChangeListener(event -> {
+            Assert.assertTrue(event.isFromClient());
+            values.add(event.getValue());
+        });
+        Element layout = ServerSideUI.getButtons(group).get(0).getElement().getParent();
+
+        // the connector sends the index that the clicks of the round-trip ended up with
+        fireClientChange(layout, eventType, phase, 2);
+        Assert.assertEquals(List.of("C"), values);
+        fireClientChange(layout, eventType, phase, 0);
+        Assert.assertEquals(List.of("C", "A"), values);
+        fireClientChange(layout, eventType, phase, 0);
+        Assert.assertEquals(List.of("C", "A"), values);
+    }
+
+    private static void fireClientChange(Element layout, String eventType, DebouncePhase phase, int index) {
+        JsonObject eventData = Json.createObject();
+        eventData.put("for", phase.getIdentifier());
+        eventData.put("event.detail.index", index);
+        ServerSideUI.fireDomEvent(layout, eventType, eventData);
+    }
+}
@@ -2,15 +2,19 @@ package org.vaadin.addons.taefi.component;
 
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.dependency.CssImport;
+import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.html.NativeLabel;
+import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.icon.VaadinIcon;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.data.value.ValueChangeMode;
 import com.vaadin.flow.router.Route;
 
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Route("")
 @CssImport("./styles/demo-view-styles.css")
@@ -97,7 +101,7 @@ public class ToggleButtonGroupView extends VerticalLayout {
         group20.setItems(Status.values());
         group20.setWidthFull();
 
-        ToggleButtonGroup<Direction> group30 = new ToggleButtonGroup<>();
+        EnumToggleButtonGroup<Direction> group30 = new EnumToggleButtonGroup<>(Direction.class);
         group30.setId("group30");
         group30.setLabel("Direction: (icons are generated based on itemIconGenerator property)");
         group30.setItemIconGenerator(direction -> switch (direction) {
@@ -108,12 +112,12 @@ public class ToggleButtonGroupView extends VerticalLayout {
             case FORWARD -> VaadinIcon.ARROW_FORWARD.create();
             case BACKWARD -> VaadinIcon.ARROW_BACKWARD.create();
         });
-        group30.setItems(Direction.values());
 
         ToggleButtonGroup<Answer> group40 = new ToggleButtonGroup<>();
         group40.setId("group40");
         group40.setItems(List.of(Answer.values()));
         group40.setValue(Answer.YES);
+        group40.setOptimisticSelection(true);
         HorizontalLayout line40 = new HorizontalLayout(group40, new Span("(No label. Default value is set by calling setValue API)"));
         line40.setAlignItems(Alignment.CENTER);
 
@@ -218,7 +222,9 @@ public class ToggleButtonGroupView extends VerticalLayout {
         group100.setId("group100");
         group100.setOrientation(ToggleButtonGroup.Orientation.VERTICAL);
 
-        ToggleButtonGroup<TextAlignment> group110 = new ToggleButtonGroup<>("Alignment:");
+        ToggleButtonGroup<TextAlignment> group110 = new ToggleButtonGroup<>("Alignment: [value change mode = lazy]");
+        group110.setValueChangeMode(ValueChangeMode.LAZY);
+        group110.addValueChangeListener(event -> Notification.show("Alignment: " + event.getValue()));
         group110.setItems(TextAlignment.values());
         group110.setItemIconGenerator(align -> switch (align) {
             case LEFT -> VaadinIcon.ALIGN_LEFT.create();
@@ -240,7 +246,63 @@ public class ToggleButtonGroupView extends VerticalLayout {
                 }
         );
 
-        VerticalLayout halfLayout = new VerticalLayout(line10, line15, group20, group30, line40, line50, group60, group70, group80, line90, group100, group110, group120);
+        ToggleButtonGroup<Menu> group130 = new ToggleButtonGroup<>("Menu: [render mode = web component]", Menu.values());
+        group130.setId("group130");
+        group130.setRenderMode(ToggleButtonGroup.RenderMode.WEB_COMPONENT);
+        NativeLabel lbl130 = new NativeLabel("Selection: ");
+        NativeLabel selected130 = new NativeLabel();
+        selected130.setId("group130-selected-value");
+        group130.addValueChangeListener(event -> selected130.setText(Optional.ofNullable(event.getValue()).map(Objects::toString).orElse("")));
+        HorizontalLayout line130 = new HorizontalLayout(group130, lbl130, selected130);
+        line130.setAlignItems(Alignment.BASELINE);
+
+        MultiToggleButtonGroup<Status> group140 = new MultiToggleButtonGroup<>("Status filter: [multi-select]", Status.values());
+        group140.setId("group140");
+        NativeLabel lbl140 = new NativeLabel("Selection: ");
+        NativeLabel selected140 = new NativeLabel();
+        selected140.setId("group140-selected-value");
+        group140.addSelectionListener(event -> selected140.setText(event.getAllSelectedItems().stream().map(Objects::toString).collect(Collectors.joining(", "))));
+        Button selectAll140 = new Button("All", event -> group140.selectAll());
+        selectAll140.setId("group140-select-all");
+        Button deselectAll140 = new Button("None", event -> group140.deselectAll());
+        deselectAll140.setId("group140-deselect-all");
+        HorizontalLayout line140 = new HorizontalLayout(group140, selectAll140, deselectAll140, lbl140, selected140);
+        line140.setAlignItems(Alignment.BASELINE);
+
+        ToggleButtonGroup<Integer> group150 = new ToggleButtonGroup<>("Seat: [render mode = virtual, 500 items]",
+                IntStream.rangeClosed(1, 500).boxed().toList());
+        group150.setId("group150");
+        group150.setOrientation(ToggleButtonGroup.Orientation.VERTICAL);
+        group150.setRenderMode(ToggleButtonGroup.RenderMode.VIRTUAL);
+        group150.getStyle().set("--toggle-button-group-viewport-size", "12em");
+        NativeLabel lbl150 = new NativeLabel("Selection: ");
+        NativeLabel selected150 = new NativeLabel();
+        selected150.setId("group150-selected-value");
+        group150.addValueChangeListener(event -> selected150.setText(Optional.ofNullable(event.getValue()).map(Objects::toString).orElse("")));
+        HorizontalLayout line150 = new HorizontalLayout(group150, lbl150, selected150);
+        line150.setAlignItems(Alignment.BASELINE);
+
+        ToggleButtonGroup<Integer> group160 = new ToggleButtonGroup<>("Seat: [max visible items = 5, 50 items]",
+                IntStream.rangeClosed(1, 50).boxed().toList());
+        group160.setId("group160");
+        group160.setMaxVisibleItems(5);
+        NativeLabel lbl160 = new NativeLabel("Selection: ");
+        NativeLabel selected160 = new NativeLabel();
+        selected160.setId("group160-selected-value");
+        group160.addValueChangeListener(event -> selected160.setText(Optional.ofNullable(event.getValue()).map(Objects::toString).orElse("")));
+        HorizontalLayout line160 = new HorizontalLayout(group160, lbl160, selected160);
+        line160.setAlignItems(Alignment.BASELINE);
+
+        Map<Integer, String> answers170 = new HashMap<>();
+        Grid<Integer> grid170 = new Grid<>();
+        grid170.setId("grid170");
+        grid170.setHeight("20em");
+        grid170.addColumn(Objects::toString).setHeader("Question").setFlexGrow(0);
+        grid170.addColumn(new ToggleButtonGroupRenderer<>(List.of("Yes", "No", "Maybe"), answers170::get,
+                answers170::put)).setHeader("Answer [renderer, 5000 rows]");
+        grid170.setItems(IntStream.rangeClosed(1, 5000).boxed().toList());
+
+        VerticalLayout halfLayout = new VerticalLayout(line10, line15, group20, group30, line40, line50, group60, group70, group80, line90, group100, group110, group120, line130, line140, line150, line160, grid170);
         halfLayout.setId("parent-layout");
         halfLayout.getStyle().set("width", "50%");
         halfLayout.getStyle().set("border", "solid red 1px");
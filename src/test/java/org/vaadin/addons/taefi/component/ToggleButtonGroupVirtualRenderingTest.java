@@ -0,0 +1,119 @@
+package org.vaadin.addons.taefi.component;
+
+import com.vaadin.flow.component.internal.PendingJavaScriptInvocation;
+import com.vaadin.flow.dom.Element;
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+public class ToggleButtonGroupVirtualRenderingTest {
+
+    private final List<String> items = IntStream.range(0, 1000).mapToObj(i -> "item-" + i).toList();
+
+    @Test
+    public void virtualMode_onlyTheRequestedRangeIsSent() {
+        ServerSideUI ui = new ServerSideUI();
+        ToggleButtonGroup<String> group = new ToggleButtonGroup<>("Label", items);
+        group.setRenderMode(ToggleButtonGroup.RenderMode.VIRTUAL);
+        ui.add(group);
+        ui.flush();
+        Element viewport = getViewport(group);
+        Assert.assertEquals(0, ServerSideUI.getButtons(group).size());
+        Assert.assertEquals(1000, viewport.getProperty("size", 0));
+
+        JsonArray range = requestRange(ui, viewport, 100, 120);
+        Assert.assertEquals(20, range.length());
+        Assert.assertEquals("item-100", range.getObject(0).getString("label"));
+
+        // a request for more than a bounded range is cut, the element asks again for the rest
+        Assert.assertTrue(requestRange(ui, viewport, 0, 1000).length() < 1000);
+    }
+
+    @Test
+    public void virtualMode_selectionIsTrackedByKey() {
+        ServerSideUI ui = new ServerSideUI();
+        ToggleButtonGroup<String> group = new ToggleButtonGroup<>("Label", items);
+        group.setRenderMode(ToggleButtonGroup.RenderMode.VIRTUAL);
+        ui.add(group);
+        ui.flush();
+        Element viewport = getViewport(group);
+
+        String key = requestRange(ui, viewport, 500, 510).getObject(5).getString("key");
+        JsonObject eventData = Json.createObject();
+        eventData.put("event.detail.value", key);
+        ServerSideUI.fireDomEvent(viewport, "selected-changed", eventData);
+        Assert.assertEquals("item-505", group.getValue());
+        Assert.assertEquals(key, viewport.getProperty("selectedKey"));
+
+        group.setValue(null);
+        Assert.assertNull(viewport.getProperty("selectedKey"));
+    }
+
+    @Test
+    public void webComponentMode_forgedSelectionOfADisabledItem_isRejected() {
+        ServerSideUI ui = new ServerSideUI();
+        ToggleButtonGroup<String> group = new ToggleButtonGroup<>("Label", List.of("A", "B", "C"));
+        group.setRenderMode(ToggleButtonGroup.RenderMode.WEB_COMPONENT);
+        group.setItemEnabledProvider(item -> !item.equals("B"));
+        group.setValue("A");
+        ui.add(group);
+        ui.flush();
+        Element itemsElement = group.getElement().getChildren()
+                .filter(child -> child.getTag().equals("toggle-button-group-items"))
+                .findFirst()
+                .orElseThrow();
+
+        JsonObject eventData = Json.createObject();
+        eventData.put("event.detail.value", 1);
+        ServerSideUI.fireDomEvent(itemsElement, "selected-changed", eventData);
+        Assert.assertEquals("A", group.getValue());
+        Assert.assertEquals(0, itemsElement.getProperty("selected", -1));
+
+        eventData.put("event.detail.value", 2);
+        ServerSideUI.fireDomEvent(itemsElement, "selected-changed", eventData);
+        Assert.assertEquals("C", group.getValue());
+    }
+
+    @Test
+    public void virtualMode_forgedSelectionOfADisabledItem_isRejected() {
+        ServerSideUI ui = new ServerSideUI();
+        ToggleButtonGroup<String> group = new ToggleButtonGroup<>("Label", items);
+        group.setRenderMode(ToggleButtonGroup.RenderMode.VIRTUAL);
+        group.setItemEnabledProvider(item -> !item.equals("item-5"));
+        ui.add(group);
+        ui.flush();
+        Element viewport = getViewport(group);
+
+        String key = requestRange(ui, viewport, 0, 10).getObject(5).getString("key");
+        JsonObject eventData = Json.createObject();
+        eventData.put("event.detail.value", key);
+        ServerSideUI.fireDomEvent(viewport, "selected-changed", eventData);
+        Assert.assertNull(group.getValue());
+        Assert.assertNull(viewport.getProperty("selectedKey"));
+    }
+
+    private Element getViewport(ToggleButtonGroup<?> group) {
+        return group.getElement().getChildren()
+                .filter(child -> child.getTag().equals("toggle-button-group-virtual-items"))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    // the items the server sends back for a range request of the element
+    private JsonArray requestRange(ServerSideUI ui, Element viewport, int start, int end) {
+        JsonObject eventData = Json.createObject();
+        eventData.put("event.detail.start", start);
+        eventData.put("event.detail.end", end);
+        ServerSideUI.fireDomEvent(viewport, "range-requested", eventData);
+        ui.flush();
+        List<PendingJavaScriptInvocation> invocations = ui.getInternals().dumpPendingJavaScriptInvocations();
+        PendingJavaScriptInvocation setRange = invocations.get(invocations.size() - 1);
+        Assert.assertEquals(start, (int) (Integer) setRange.getInvocation().getParameters().get(1));
+        return (JsonArray) setRange.getInvocation().getParameters().get(2);
+    }
+}